@@ -0,0 +1,50 @@
+package com.mycompany.app;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic workout fixtures shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final String[] EXERCISES = {"Bench Press", "Squat", "Deadlift", "Overhead Press", "Pull Ups"};
+
+    /**
+     * Note shapes that exercise the different CSV escaping paths.
+     */
+    enum NoteShape {
+        PLAIN,
+        QUOTED,
+        COMMAS
+    }
+
+    private BenchmarkData() {
+    }
+
+    static Workout workout(int i, NoteShape shape) {
+        int day = i % 28 + 1;
+        int month = i / 28 % 12 + 1;
+        return new Workout(month + "/" + day + "/2026", EXERCISES[i % EXERCISES.length],
+                95.0 + (i % 40) * 5, 5 + i % 8, 3 + i % 3, note(i, shape), i % 4 != 0);
+    }
+
+    static List<Workout> workouts(int count, NoteShape shape) {
+        List<Workout> workouts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            workouts.add(workout(i, shape));
+        }
+        return workouts;
+    }
+
+    private static String note(int i, NoteShape shape) {
+        switch (shape) {
+            case QUOTED:
+                return "Felt \"great\" on set " + (i % 5 + 1);
+            case COMMAS:
+                return "Paused reps, tempo 3-1-1, set " + (i % 5 + 1);
+            default:
+                return "Steady session " + (i % 5 + 1);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.mycompany.app;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the storage benchmarks with the GC profiler attached so every result reports
+ * allocation rate (gc.alloc.rate.norm = bytes allocated per operation) next to throughput.
+ * Accepts the usual JMH command-line options, e.g. a benchmark regex or -p rows=1000.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,90 @@
+package com.mycompany.app;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole-file saveWorkoutObjects/loadWorkoutObjects round trips across file sizes and note shapes.
+ * Loads are measured with the parsed-file cache off, so they parse every time, and again with
+ * it on, where every load after the first only copies the cached workouts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class StorageRoundTripBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"PLAIN", "QUOTED", "COMMAS"})
+    public BenchmarkData.NoteShape noteShape;
+
+    private Path directory;
+    private String savePath;
+    private String loadPath;
+    private List<Workout> workouts;
+    private FileStorage storage;
+    private FileStorage cachedStorage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("workout-bench-storage-");
+        savePath = directory.resolve("save.csv").toString();
+        loadPath = directory.resolve("load.csv").toString();
+        workouts = BenchmarkData.workouts(rows, noteShape);
+
+        storage = new FileStorage(savePath);
+        storage.setAutoBackupEnabled(false);
+        storage.setLoadCacheEnabled(false);
+        storage.saveWorkoutObjects(workouts, loadPath);
+
+        cachedStorage = new FileStorage(loadPath);
+        cachedStorage.setAutoBackupEnabled(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        // Saves leave derived files (rollups and the like) beside the CSVs, so clear the whole directory.
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean saveWorkoutObjects() throws Exception {
+        return storage.saveWorkoutObjects(workouts, savePath);
+    }
+
+    @Benchmark
+    public List<Workout> loadWorkoutObjects() throws Exception {
+        return storage.loadWorkoutObjects(loadPath);
+    }
+
+    @Benchmark
+    public List<Workout> loadWorkoutObjectsCached() throws Exception {
+        return cachedStorage.loadWorkoutObjects(loadPath);
+    }
+}
@@ -0,0 +1,62 @@
+package com.mycompany.app;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-row hot paths: Workout CSV encoding/decoding, the storage row tokenizer and validation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkoutCsvBenchmark {
+
+    @Param({"PLAIN", "QUOTED", "COMMAS"})
+    public BenchmarkData.NoteShape noteShape;
+
+    private Workout workout;
+    private String csvLine;
+    private FileStorage storage;
+
+    @Setup
+    public void setUp() throws Exception {
+        workout = BenchmarkData.workout(7, noteShape);
+        csvLine = workout.toCsvLine();
+        storage = new FileStorage(java.nio.file.Files.createTempDirectory("workout-bench-csv-")
+                .resolve("unused.csv").toString());
+    }
+
+    @Benchmark
+    public String toCsvLine() {
+        return workout.toCsvLine();
+    }
+
+    @Benchmark
+    public Workout fromCsvLine() {
+        return Workout.fromCsvLine(csvLine);
+    }
+
+    // Tokenize, validate and build in one pass, as the storage loaders do per row.
+    @Benchmark
+    public Workout parseWorkoutLine() {
+        return storage.parseWorkoutLine(csvLine);
+    }
+
+    @Benchmark
+    public boolean isValidWorkoutEntry() {
+        return storage.isValidWorkoutEntry(csvLine);
+    }
+}
@@ -0,0 +1,217 @@
+package com.mycompany.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind autosave for a WorkoutLog.
+ *
+ * Edits only mark the log dirty; a background thread saves once the edits stop for the
+ * configured delay or once enough edits pile up, so a burst of changes becomes one write
+ * and the editing thread never waits on disk. Pending edits are also flushed by a JVM
+ * shutdown hook. Background results go to the result handler as OperationResults.
+ */
+public class AutoSaver implements WorkoutLogListener, AutoCloseable {
+
+    private static final int DEFAULT_MAX_PENDING_CHANGES = 50;
+    private static final long DEFAULT_DELAY_MILLIS = 2000;
+    private static final long SHUTDOWN_SAVE_WAIT_SECONDS = 10;
+    private static final long SHUTDOWN_BACKUP_WAIT_SECONDS = 5;
+
+    private final WorkoutLog log;
+    private final FileStorage storage;
+    private final String filePath;
+    private final int maxPendingChanges;
+    private final long delayMillis;
+    private final Consumer<FileStorage.OperationResult<Void>> resultHandler;
+    private final ScheduledExecutorService saver;
+    private final AtomicInteger pendingChanges = new AtomicInteger();
+    private final Thread shutdownHook;
+
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    public AutoSaver(WorkoutLog log, FileStorage storage, Consumer<FileStorage.OperationResult<Void>> resultHandler) {
+        this(log, storage, storage.getCurrentFilePath(), DEFAULT_MAX_PENDING_CHANGES, DEFAULT_DELAY_MILLIS,
+                resultHandler);
+    }
+
+    public AutoSaver(WorkoutLog log, FileStorage storage, String filePath, int maxPendingChanges, long delayMillis,
+            Consumer<FileStorage.OperationResult<Void>> resultHandler) {
+        if (maxPendingChanges < 1 || delayMillis < 0) {
+            throw new IllegalArgumentException("Autosave thresholds must be positive");
+        }
+        this.log = log;
+        this.storage = storage;
+        this.filePath = filePath;
+        this.maxPendingChanges = maxPendingChanges;
+        this.delayMillis = delayMillis;
+        this.resultHandler = resultHandler == null ? result -> { } : resultHandler;
+        this.saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workout-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.shutdownHook = new Thread(this::flushOnShutdown, "workout-autosave-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        log.addListener(this);
+    }
+
+    @Override
+    public void workoutAdded(int index, Workout workout) {
+        markDirty();
+    }
+
+    @Override
+    public void workoutRemoved(int index, Workout workout) {
+        markDirty();
+    }
+
+    @Override
+    public void workoutCompleted(int index, Workout workout) {
+        markDirty();
+    }
+
+    public int getPendingChanges() {
+        return pendingChanges.get();
+    }
+
+    /**
+     * Saves pending changes now on the saver thread and waits for the result. Returns an
+     * empty result when nothing was pending. Throws IllegalStateException once closed:
+     * close() already flushed and the saver thread is gone.
+     */
+    public FileStorage.OperationResult<Void> flushNow() throws FileStorage.FileStorageException {
+        synchronized (this) {
+            if (closed) {
+                throw closedException();
+            }
+        }
+        return saveOnSaver();
+    }
+
+    private FileStorage.OperationResult<Void> saveOnSaver() throws FileStorage.FileStorageException {
+        try {
+            return saver.submit(this::save).get();
+        } catch (RejectedExecutionException e) {
+            throw closedException(); // close() shut the saver down after the check in flushNow
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorage.FileStorageException("Interrupted while saving workouts", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FileStorage.FileStorageException) {
+                throw (FileStorage.FileStorageException) e.getCause();
+            }
+            throw new FileStorage.FileStorageException("Autosave failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    // Stop listening, flush whatever is pending and shut the saver thread down.
+    @Override
+    public void close() throws FileStorage.FileStorageException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        log.removeListener(this);
+        try {
+            FileStorage.OperationResult<Void> result = saveOnSaver();
+            if (result.hasErrors()) {
+                resultHandler.accept(result);
+            }
+        } finally {
+            saver.shutdown();
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ignored) {
+                // Already shutting down; the hook is running or about to.
+            }
+        }
+    }
+
+    private void markDirty() {
+        int pending = pendingChanges.incrementAndGet();
+        scheduleFlush(pending >= maxPendingChanges ? 0 : delayMillis);
+    }
+
+    // Coalesce: keep one scheduled flush and push it back on every edit, or run it now at the size threshold.
+    private synchronized void scheduleFlush(long delay) {
+        if (closed) {
+            return;
+        }
+        if (scheduledFlush != null && !scheduledFlush.isDone()) {
+            if (scheduledFlush.getDelay(TimeUnit.MILLISECONDS) <= 0) {
+                return; // Due or running; backgroundFlush reschedules for edits it did not save
+            }
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlush = saver.schedule(this::backgroundFlush, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void backgroundFlush() {
+        FileStorage.OperationResult<Void> result;
+        try {
+            result = save();
+        } catch (FileStorage.FileStorageException e) {
+            List<String> errors = new ArrayList<>();
+            errors.add("Autosave failed: " + e.getMessage());
+            result = new FileStorage.OperationResult<>(null, 0, 0, 0, errors);
+        }
+        if (result.getProcessedCount() > 0 || result.hasErrors()) {
+            resultHandler.accept(result);
+        }
+        // Edits made while this flush was due found it already scheduled and did not push it back.
+        synchronized (this) {
+            if (!closed && pendingChanges.get() > 0) {
+                scheduledFlush = saver.schedule(this::backgroundFlush, delayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // Runs on the saver thread only, so saves never overlap.
+    private FileStorage.OperationResult<Void> save() throws FileStorage.FileStorageException {
+        int changes = pendingChanges.getAndSet(0);
+        if (changes == 0) {
+            return emptyResult();
+        }
+        try {
+            return storage.saveWorkoutObjectsWithResult(log.getAllWorkouts(), filePath);
+        } catch (FileStorage.FileStorageException | RuntimeException e) {
+            pendingChanges.addAndGet(changes);
+            throw e;
+        }
+    }
+
+    // Save on the saver thread like every other flush, so it cannot race one already running.
+    private void flushOnShutdown() {
+        try {
+            saver.submit(this::save).get(SHUTDOWN_SAVE_WAIT_SECONDS, TimeUnit.SECONDS);
+            storage.awaitBackups(SHUTDOWN_BACKUP_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            System.err.println("[AutoSaver] Could not save on shutdown: " + e.getCause().getMessage());
+        } catch (TimeoutException | RuntimeException e) {
+            System.err.println("[AutoSaver] Could not save on shutdown: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private IllegalStateException closedException() {
+        return new IllegalStateException("AutoSaver for " + filePath + " is closed; close() saved the last changes");
+    }
+
+    private static FileStorage.OperationResult<Void> emptyResult() {
+        return new FileStorage.OperationResult<>(null, 0, 0, 0, new ArrayList<>());
+    }
+}
@@ -0,0 +1,473 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressed, chunk-deduplicated backup versions of workout files.
+ *
+ * A backup starts from a snapshot: a hard link to the file being replaced (a copy where
+ * links are not supported), which stays immutable because saves always rename a new file
+ * over the old one. A single background thread splits the snapshot into content-defined
+ * chunks, stores each chunk not already present as a GZIP file named by its SHA-256, and
+ * writes a small recipe listing the chunks. Unchanged regions of a file therefore cost
+ * nothing in later backups, and an edit only adds the chunks around it.
+ *
+ * The catalog of versions and chunk reference counts lives in memory; the directory is
+ * listed once when the store is first used. Versions are cataloged by the normalized
+ * absolute path of their source, which the recipe records, so same-named files in
+ * different directories keep separate histories and a version only restores onto its own
+ * source. Each source file keeps its newest {@link #MAX_VERSIONS} versions, and chunks no
+ * version references are deleted. Plain backup copies and recipes left by older versions
+ * of the app record no path; they are cataloged by file name and restore onto any file of
+ * that name, as they always did.
+ */
+public final class BackupStore {
+
+    static final int MAX_VERSIONS = 5;
+    static final String RECIPE_SUFFIX = ".chunks";
+    private static final String CHUNK_DIRECTORY = "chunks";
+    private static final String SNAPSHOT_DIRECTORY = ".snapshots";
+    private static final String VERSION_MARKER = "_backup_";
+    private static final int MIN_CHUNK_BYTES = 16 * 1024;
+    private static final int MAX_CHUNK_BYTES = 256 * 1024;
+    private static final long CUT_MASK = 0xFFFFL << 48; // ~64 KiB average chunks
+    private static final long[] GEAR = new long[256];
+    private static final Map<Path, BackupStore> STORES = new ConcurrentHashMap<>();
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_BAC4_0F1EL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final Path directory;
+    private final Path chunkDirectory;
+    private final Path snapshotDirectory;
+    private final ExecutorService worker;
+    private final AtomicLong snapshotSequence = new AtomicLong();
+
+    // Catalog, guarded by this. Keyed by source path, or by file name for versions without one.
+    private final Map<String, Deque<BackupVersion>> versionsBySource = new HashMap<>();
+    private final Map<String, BackupVersion> versionsByName = new HashMap<>();
+    private final Map<String, Integer> chunkReferences = new HashMap<>();
+
+    /** One retained backup of a source file. */
+    public static final class BackupVersion {
+        private final String name;
+        private final String sourceName;
+        private final String sourcePath; // null for versions written before paths were recorded
+        private final long size;
+        private final long storedBytes;
+        private final long createdMillis;
+        private final List<String> chunks; // null for a plain copy
+
+        private BackupVersion(String name, String sourceName, String sourcePath, long size, long storedBytes,
+                long createdMillis, List<String> chunks) {
+            this.name = name;
+            this.sourceName = sourceName;
+            this.sourcePath = sourcePath;
+            this.size = size;
+            this.storedBytes = storedBytes;
+            this.createdMillis = createdMillis;
+            this.chunks = chunks;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSourceName() {
+            return sourceName;
+        }
+
+        // Normalized absolute path of the backed-up file, or null when the version predates it.
+        public String getSourcePath() {
+            return sourcePath;
+        }
+
+        // Size of the file this version restores to.
+        public long getSize() {
+            return size;
+        }
+
+        // Bytes this version added to the store when it was taken (new compressed chunks and recipe).
+        public long getStoredBytes() {
+            return storedBytes;
+        }
+
+        public long getCreatedMillis() {
+            return createdMillis;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + size + " bytes)";
+        }
+    }
+
+    private BackupStore(Path directory) throws IOException {
+        this.directory = directory;
+        this.chunkDirectory = directory.resolve(CHUNK_DIRECTORY);
+        this.snapshotDirectory = directory.resolve(SNAPSHOT_DIRECTORY);
+        Files.createDirectories(chunkDirectory);
+        Files.createDirectories(snapshotDirectory);
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workout-backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        loadCatalog();
+    }
+
+    // The store for a backup directory, shared by every FileStorage using that directory.
+    static BackupStore forDirectory(Path directory) {
+        return STORES.computeIfAbsent(directory.toAbsolutePath().normalize(), dir -> {
+            try {
+                return new BackupStore(dir);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open backup directory " + dir, e);
+            }
+        });
+    }
+
+    /**
+     * Freeze the current contents of the file for a later backup. Cheap enough to call
+     * inside the save lock: a hard link, or a copy where the file system has none.
+     */
+    Path snapshot(Path source) throws IOException {
+        Path snapshot = snapshotDirectory.resolve(snapshotSequence.incrementAndGet() + "-" + System.nanoTime()
+                + "-" + source.getFileName());
+        try {
+            Files.createLink(snapshot, source);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(source, snapshot, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Store the snapshot as a new version of source on the backup thread, then delete the
+     * snapshot. The version is named like the plain backups always were:
+     * base_backup_timestamp.ext.
+     */
+    CompletableFuture<BackupVersion> backupAsync(Path snapshot, Path source, String timestamp) {
+        String sourcePath = sourcePath(source);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return store(snapshot, sourcePath, timestamp);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                try {
+                    Files.deleteIfExists(snapshot);
+                } catch (IOException ignored) {
+                    // Swept when the store is next opened.
+                }
+            }
+        }, worker);
+    }
+
+    // Wait for every backup submitted so far; false on timeout.
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            worker.submit(() -> { }).get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    // Retained versions of one source file, oldest first, including its name's path-less versions.
+    public synchronized List<BackupVersion> listVersions(Path source) {
+        List<BackupVersion> versions = new ArrayList<>();
+        versions.addAll(versionsBySource.getOrDefault(sourcePath(source), new ArrayDeque<>()));
+        versions.addAll(versionsBySource.getOrDefault(source.getFileName().toString(), new ArrayDeque<>()));
+        versions.sort((a, b) -> Long.compare(a.createdMillis, b.createdMillis));
+        return versions;
+    }
+
+    /**
+     * Rebuild a version into target, replacing it atomically. The version must be one of
+     * target's own, as listed by listVersions. Every chunk is checked against its hash
+     * before the target is touched. Returns the restored size.
+     */
+    public long restore(String versionName, Path target) throws IOException {
+        BackupVersion version = find(versionName, target);
+        Path absolute = target.toAbsolutePath();
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".restore.tmp");
+        try {
+            if (version.chunks == null) {
+                Files.copy(directory.resolve(version.name), temp, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    for (String hash : version.chunks) {
+                        byte[] chunk;
+                        try (InputStream in = new GZIPInputStream(Files.newInputStream(chunkPath(hash)))) {
+                            chunk = in.readAllBytes();
+                        }
+                        if (!hash.equals(sha256(chunk, chunk.length))) {
+                            throw new IOException("Backup chunk " + hash + " is corrupt");
+                        }
+                        out.write(chunk);
+                    }
+                }
+            }
+            if (Files.size(temp) != version.size) {
+                throw new IOException("Restored " + Files.size(temp) + " bytes, expected " + version.size);
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return version.size;
+    }
+
+    // The named version if it is one of target's own; throws when it is missing or another file's.
+    synchronized BackupVersion find(String versionName, Path target) throws IOException {
+        BackupVersion version = versionsByName.get(versionName);
+        if (version == null) {
+            throw new IOException("No backup named " + versionName);
+        }
+        if (version.sourcePath != null ? !version.sourcePath.equals(sourcePath(target))
+                : !version.sourceName.equals(target.getFileName().toString())) {
+            throw new IOException("Backup " + versionName + " is of "
+                    + (version.sourcePath != null ? version.sourcePath : version.sourceName) + ", not " + target);
+        }
+        return version;
+    }
+
+    // Runs on the backup thread only.
+    private BackupVersion store(Path snapshot, String sourcePath, String timestamp) throws IOException {
+        List<String> chunks = new ArrayList<>();
+        long size = 0;
+        long storedBytes = 0;
+        Set<String> written = new HashSet<>();
+        byte[] chunk = new byte[MAX_CHUNK_BYTES];
+        byte[] block = new byte[64 * 1024];
+        int length = 0;
+        long hash = 0;
+        try (InputStream in = Files.newInputStream(snapshot)) {
+            int read;
+            while ((read = in.read(block)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    byte b = block[i];
+                    chunk[length++] = b;
+                    hash = (hash << 1) + GEAR[b & 0xFF];
+                    if (length == MAX_CHUNK_BYTES || (length >= MIN_CHUNK_BYTES && (hash & CUT_MASK) == 0)) {
+                        storedBytes += writeChunk(chunk, length, chunks, written);
+                        size += length;
+                        length = 0;
+                        hash = 0;
+                    }
+                }
+            }
+        }
+        if (length > 0) {
+            storedBytes += writeChunk(chunk, length, chunks, written);
+            size += length;
+        }
+
+        String sourceName = Path.of(sourcePath).getFileName().toString();
+        String name = uniqueName(sourceName, timestamp);
+        List<String> lines = new ArrayList<>(chunks.size() + 2);
+        lines.add(sourcePath);
+        lines.add(Long.toString(size));
+        lines.addAll(chunks);
+        Path recipe = directory.resolve(name + RECIPE_SUFFIX);
+        Path temp = directory.resolve(name + RECIPE_SUFFIX + ".tmp");
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        Files.move(temp, recipe, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        storedBytes += Files.size(recipe);
+
+        BackupVersion version = new BackupVersion(name, sourceName, sourcePath, size, storedBytes,
+                System.currentTimeMillis(), Collections.unmodifiableList(chunks));
+        synchronized (this) {
+            add(version);
+            List<BackupVersion> expired = new ArrayList<>();
+            Deque<BackupVersion> versions = versionsBySource.get(sourcePath);
+            while (versions.size() > MAX_VERSIONS) {
+                expired.add(versions.removeFirst());
+            }
+            for (BackupVersion old : expired) {
+                drop(old);
+            }
+        }
+        return version;
+    }
+
+    // Store one chunk unless it is already present; returns the bytes written.
+    private long writeChunk(byte[] chunk, int length, List<String> chunks, Set<String> written) throws IOException {
+        String hash = sha256(chunk, length);
+        chunks.add(hash);
+        Path path = chunkPath(hash);
+        if (written.contains(hash) || Files.exists(path)) {
+            return 0;
+        }
+        Path temp = chunkDirectory.resolve(hash + ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            out.write(chunk, 0, length);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        written.add(hash);
+        return Files.size(path);
+    }
+
+    // Backups in the same second would share a name; later ones get a counter.
+    private synchronized String uniqueName(String sourceName, String timestamp) {
+        int extension = sourceName.lastIndexOf('.');
+        String base = extension > 0 ? sourceName.substring(0, extension) : sourceName;
+        String suffix = extension > 0 ? sourceName.substring(extension) : "";
+        String name = base + VERSION_MARKER + timestamp + suffix;
+        for (int i = 1; versionsByName.containsKey(name); i++) {
+            name = base + VERSION_MARKER + timestamp + "-" + i + suffix;
+        }
+        return name;
+    }
+
+    private void add(BackupVersion version) {
+        String key = version.sourcePath != null ? version.sourcePath : version.sourceName;
+        versionsBySource.computeIfAbsent(key, s -> new ArrayDeque<>()).addLast(version);
+        versionsByName.put(version.name, version);
+        if (version.chunks != null) {
+            for (String hash : version.chunks) {
+                chunkReferences.merge(hash, 1, Integer::sum);
+            }
+        }
+    }
+
+    private void drop(BackupVersion version) {
+        versionsByName.remove(version.name);
+        try {
+            if (version.chunks == null) {
+                Files.deleteIfExists(directory.resolve(version.name));
+                return;
+            }
+            Files.deleteIfExists(directory.resolve(version.name + RECIPE_SUFFIX));
+            for (String hash : version.chunks) {
+                if (chunkReferences.merge(hash, -1, Integer::sum) == 0) {
+                    chunkReferences.remove(hash);
+                    Files.deleteIfExists(chunkPath(hash));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("[BackupStore] Could not delete expired backup " + version.name + ": " + e.getMessage());
+        }
+    }
+
+    // The one directory scan: recipes, plain copies, stale snapshots and unreferenced chunks.
+    private synchronized void loadCatalog() throws IOException {
+        List<BackupVersion> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                if (!Files.isRegularFile(file) || !fileName.contains(VERSION_MARKER) || fileName.endsWith(".tmp")) {
+                    continue;
+                }
+                long created = Files.getLastModifiedTime(file).toMillis();
+                if (fileName.endsWith(RECIPE_SUFFIX)) {
+                    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+                    if (lines.size() < 2) {
+                        continue;
+                    }
+                    String name = fileName.substring(0, fileName.length() - RECIPE_SUFFIX.length());
+                    // Older recipes start with the bare file name instead of the path.
+                    Path source = Path.of(lines.get(0));
+                    found.add(new BackupVersion(name, source.getFileName().toString(),
+                            source.isAbsolute() ? lines.get(0) : null, Long.parseLong(lines.get(1)), 0, created,
+                            Collections.unmodifiableList(new ArrayList<>(lines.subList(2, lines.size())))));
+                } else {
+                    found.add(new BackupVersion(fileName, legacySourceName(fileName), null, Files.size(file),
+                            Files.size(file), created, null));
+                }
+            }
+        }
+        found.sort((a, b) -> Long.compare(a.createdMillis, b.createdMillis));
+        for (BackupVersion version : found) {
+            add(version);
+        }
+        for (Deque<BackupVersion> versions : versionsBySource.values()) {
+            while (versions.size() > MAX_VERSIONS) {
+                drop(versions.removeFirst());
+            }
+        }
+
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(snapshotDirectory)) {
+            for (Path snapshot : stale) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+        try (DirectoryStream<Path> chunks = Files.newDirectoryStream(chunkDirectory)) {
+            for (Path chunk : chunks) {
+                String fileName = chunk.getFileName().toString();
+                String hash = fileName.endsWith(".gz") ? fileName.substring(0, fileName.length() - 3) : null;
+                if (hash == null || !chunkReferences.containsKey(hash)) {
+                    Files.deleteIfExists(chunk);
+                }
+            }
+        }
+    }
+
+    // workouts_backup_2026-01-02_03-04-05.csv was a copy of workouts.csv.
+    private static String legacySourceName(String fileName) {
+        int marker = fileName.lastIndexOf(VERSION_MARKER);
+        String rest = fileName.substring(marker + VERSION_MARKER.length());
+        int extension = rest.lastIndexOf('.');
+        return fileName.substring(0, marker) + (extension >= 0 ? rest.substring(extension) : "");
+    }
+
+    private static String sourcePath(Path source) {
+        return source.toAbsolutePath().normalize().toString();
+    }
+
+    private Path chunkPath(String hash) {
+        return chunkDirectory.resolve(hash + ".gz");
+    }
+
+    private static String sha256(byte[] bytes, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bytes, 0, length);
+            byte[] hash = digest.digest();
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+}
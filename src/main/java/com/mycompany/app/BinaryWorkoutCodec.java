@@ -0,0 +1,205 @@
+package com.mycompany.app;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Versioned binary encoding of a workout list.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * int magic "WKLB", short version, int rowCount
+ * date dictionary:     int n, n x (int epochDay, string text)
+ * exercise dictionary: int n, n x string
+ * columns:             int[rows] dateId, int[rows] exerciseId, double[rows] weight,
+ *                      int[rows] reps, int[rows] sets, long[(rows + 63) / 64] completed bits
+ * notes:               rows x string
+ * int crc32 of everything above
+ * </pre>
+ * Strings are an int byte length followed by UTF-8 bytes.
+ */
+final class BinaryWorkoutCodec {
+
+    static final int MAGIC = 0x574B4C42;
+    static final short VERSION = 1;
+
+    private BinaryWorkoutCodec() {
+    }
+
+    // Encode workouts that already passed storage validation; returns the number of bytes written.
+    static long write(List<Workout> workouts, OutputStream target) throws IOException {
+        CheckedOutputStream checked = new CheckedOutputStream(target, new CRC32());
+        DataOutputStream out = new DataOutputStream(checked);
+        int rows = workouts.size();
+
+        Map<String, Integer> dateIds = new LinkedHashMap<>();
+        Map<String, Integer> exerciseIds = new LinkedHashMap<>();
+        List<Workout> dateSamples = new ArrayList<>();
+        int[] dateColumn = new int[rows];
+        int[] exerciseColumn = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            Workout workout = workouts.get(i);
+            Integer dateId = dateIds.get(workout.getDate());
+            if (dateId == null) {
+                dateId = dateIds.size();
+                dateIds.put(workout.getDate(), dateId);
+                dateSamples.add(workout);
+            }
+            dateColumn[i] = dateId;
+            exerciseColumn[i] = exerciseIds.computeIfAbsent(workout.getExercise(), key -> exerciseIds.size());
+        }
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(rows);
+
+        out.writeInt(dateSamples.size());
+        for (Workout sample : dateSamples) {
+            out.writeInt(sample.getEpochDay());
+            writeString(out, sample.getDate());
+        }
+        out.writeInt(exerciseIds.size());
+        for (String exercise : exerciseIds.keySet()) {
+            writeString(out, exercise);
+        }
+
+        for (int dateId : dateColumn) {
+            out.writeInt(dateId);
+        }
+        for (int exerciseId : exerciseColumn) {
+            out.writeInt(exerciseId);
+        }
+        for (Workout workout : workouts) {
+            out.writeDouble(workout.getWeight());
+        }
+        for (Workout workout : workouts) {
+            out.writeInt(workout.getReps());
+        }
+        for (Workout workout : workouts) {
+            out.writeInt(workout.getSets());
+        }
+        long[] completedBits = new long[(rows + 63) / 64];
+        for (int i = 0; i < rows; i++) {
+            if (workouts.get(i).isCompleted()) {
+                completedBits[i >>> 6] |= 1L << (i & 63);
+            }
+        }
+        for (long bits : completedBits) {
+            out.writeLong(bits);
+        }
+        for (Workout workout : workouts) {
+            writeString(out, workout.getNote());
+        }
+
+        out.flush();
+        int crc = (int) checked.getChecksum().getValue();
+        out.writeInt(crc);
+        out.flush();
+        return out.size();
+    }
+
+    /**
+     * Decode a whole file image held in a heap buffer. Throws IOException for a foreign,
+     * newer or corrupt file.
+     */
+    static List<Workout> read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 14) {
+            throw new IOException("Binary workout file is truncated");
+        }
+        int bodyLength = buffer.remaining() - 4;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(buffer.position() + bodyLength));
+        if ((int) crc.getValue() != buffer.getInt(buffer.position() + bodyLength)) {
+            throw new IOException("Binary workout file failed its checksum");
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a binary workout file");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary workout version " + version);
+            }
+            int rows = buffer.getInt();
+            if (rows < 0 || (long) rows * 28 > buffer.remaining()) {
+                throw new IOException("Binary workout file has an invalid row count");
+            }
+
+            int dateCount = buffer.getInt();
+            String[] dates = new String[dateCount];
+            int[] epochDays = new int[dateCount];
+            for (int i = 0; i < dateCount; i++) {
+                epochDays[i] = buffer.getInt();
+                dates[i] = readString(buffer);
+            }
+            int exerciseCount = buffer.getInt();
+            String[] exercises = new String[exerciseCount];
+            for (int i = 0; i < exerciseCount; i++) {
+                exercises[i] = ExerciseDictionary.intern(readString(buffer));
+            }
+
+            int[] dateColumn = new int[rows];
+            int[] exerciseColumn = new int[rows];
+            double[] weights = new double[rows];
+            int[] reps = new int[rows];
+            int[] sets = new int[rows];
+            long[] completedBits = new long[(rows + 63) / 64];
+            readInts(buffer, dateColumn);
+            readInts(buffer, exerciseColumn);
+            buffer.asDoubleBuffer().get(weights);
+            buffer.position(buffer.position() + rows * Double.BYTES);
+            readInts(buffer, reps);
+            readInts(buffer, sets);
+            buffer.asLongBuffer().get(completedBits);
+            buffer.position(buffer.position() + completedBits.length * Long.BYTES);
+
+            List<Workout> workouts = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                int dateId = dateColumn[i];
+                boolean completed = (completedBits[i >>> 6] & (1L << (i & 63))) != 0;
+                workouts.add(new Workout(dates[dateId], epochDays[dateId], exercises[exerciseColumn[i]],
+                        weights[i], reps[i], sets[i], readString(buffer), completed));
+            }
+            return workouts;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                | NegativeArraySizeException e) {
+            throw new IOException("Binary workout file is malformed", e);
+        }
+    }
+
+    private static void readInts(ByteBuffer buffer, int[] column) {
+        buffer.asIntBuffer().get(column);
+        buffer.position(buffer.position() + column.length * Integer.BYTES);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            out.writeInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == 0) {
+            return "";
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,254 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports exported workout files into a WorkoutLog.
+ *
+ * Files are parsed and validated in parallel, then merged in file order: workouts whose
+ * date, exercise, weight, reps and sets match one already in the log or earlier in the
+ * import are dropped as duplicates, and the rest are appended in batches so listeners and
+ * the log lock are not hit once per row.
+ */
+public class BulkImporter {
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final FileStorage storage;
+    private final WorkoutLog log;
+    private final ForkJoinPool pool;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    public BulkImporter(FileStorage storage, WorkoutLog log) {
+        this(storage, log, ForkJoinPool.commonPool());
+    }
+
+    public BulkImporter(FileStorage storage, WorkoutLog log, ForkJoinPool pool) {
+        this.storage = storage;
+        this.log = log;
+        this.pool = pool;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /** Per-file outcome of an import. */
+    public static class FileStats {
+        private final Path file;
+        private final int processedCount;
+        private final int importedCount;
+        private final int invalidCount;
+        private final int duplicateCount;
+        private final List<String> errors;
+
+        FileStats(Path file, int processedCount, int importedCount, int invalidCount, int duplicateCount,
+                List<String> errors) {
+            this.file = file;
+            this.processedCount = processedCount;
+            this.importedCount = importedCount;
+            this.invalidCount = invalidCount;
+            this.duplicateCount = duplicateCount;
+            this.errors = new ArrayList<>(errors);
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public int getProcessedCount() {
+            return processedCount;
+        }
+
+        public int getImportedCount() {
+            return importedCount;
+        }
+
+        public int getInvalidCount() {
+            return invalidCount;
+        }
+
+        public int getDuplicateCount() {
+            return duplicateCount;
+        }
+
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        @Override
+        public String toString() {
+            return file + ": imported " + importedCount + " of " + processedCount + " (invalid " + invalidCount
+                    + ", duplicates " + duplicateCount + ")";
+        }
+    }
+
+    /**
+     * Imports one file, or every regular file directly inside a directory (in name order).
+     * Files that FileStorage keeps beside saved data (rollups, note index, checkpoint) are
+     * not workout files and are passed over.
+     */
+    public FileStorage.OperationResult<List<FileStats>> importPath(Path path)
+            throws FileStorage.FileStorageException {
+        if (!Files.isDirectory(path)) {
+            return importFiles(List.of(path));
+        }
+        try (Stream<Path> entries = Files.list(path)) {
+            return importFiles(entries.filter(Files::isRegularFile)
+                    .filter(file -> !isSidecar(file.getFileName().toString()))
+                    .sorted().collect(Collectors.toList()));
+        } catch (IOException e) {
+            throw new FileStorage.FileStorageException("Failed to list import directory: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Imports the files in parallel and merges them into the log in the given order. The
+     * result's counts cover every file: skipped means invalid or duplicate rows, and errors
+     * are prefixed with the file they came from.
+     */
+    public FileStorage.OperationResult<List<FileStats>> importFiles(List<Path> files)
+            throws FileStorage.FileStorageException {
+        List<Callable<ParsedFile>> tasks = new ArrayList<>();
+        for (Path file : files) {
+            tasks.add(() -> parse(file));
+        }
+
+        List<ParsedFile> parsed = new ArrayList<>();
+        try {
+            for (Future<ParsedFile> future : pool.invokeAll(tasks)) {
+                parsed.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorage.FileStorageException("Interrupted while importing workouts", e);
+        } catch (ExecutionException e) {
+            throw new FileStorage.FileStorageException("Failed to import workouts: " + e.getCause(), e.getCause());
+        }
+
+        Set<DedupKey> seen = new HashSet<>();
+        for (Workout workout : log.getAllWorkouts()) {
+            seen.add(new DedupKey(workout));
+        }
+
+        List<FileStats> stats = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        List<Workout> batch = new ArrayList<>(batchSize);
+        int processedCount = 0;
+        int importedCount = 0;
+        int skippedCount = 0;
+        for (ParsedFile file : parsed) {
+            int imported = 0;
+            int duplicates = 0;
+            for (Workout workout : file.workouts) {
+                if (!seen.add(new DedupKey(workout))) {
+                    duplicates++;
+                    continue;
+                }
+                batch.add(workout);
+                imported++;
+                if (batch.size() == batchSize) {
+                    log.addWorkouts(batch);
+                    batch.clear();
+                }
+            }
+
+            FileStorage.OperationResult<Void> result = file.result;
+            stats.add(new FileStats(file.path, result.getProcessedCount(), imported, result.getSkippedCount(),
+                    duplicates, result.getErrors()));
+            processedCount += result.getProcessedCount();
+            importedCount += imported;
+            skippedCount += result.getSkippedCount() + duplicates;
+            for (String error : result.getErrors()) {
+                errors.add(file.path.getFileName() + ": " + error);
+            }
+        }
+        if (!batch.isEmpty()) {
+            log.addWorkouts(batch);
+        }
+
+        return new FileStorage.OperationResult<>(stats, processedCount, importedCount, skippedCount, errors);
+    }
+
+    // Runs on the pool; an unreadable file becomes an error for that file instead of failing the import.
+    private ParsedFile parse(Path file) {
+        List<Workout> workouts = new ArrayList<>();
+        FileStorage.OperationResult<Void> result;
+        try {
+            result = storage.streamWorkoutObjects(file.toString(), workouts::add);
+        } catch (FileStorage.FileStorageException e) {
+            workouts.clear();
+            result = new FileStorage.OperationResult<>(null, 0, 0, 0, List.of(e.getMessage()));
+        }
+        return new ParsedFile(file, workouts, result);
+    }
+
+    private static boolean isSidecar(String fileName) {
+        return fileName.endsWith(WorkoutRollups.FILE_SUFFIX) || fileName.endsWith(NoteIndex.FILE_SUFFIX)
+                || fileName.endsWith(WorkoutCheckpoint.FILE_SUFFIX);
+    }
+
+    private static final class ParsedFile {
+        private final Path path;
+        private final List<Workout> workouts;
+        private final FileStorage.OperationResult<Void> result;
+
+        private ParsedFile(Path path, List<Workout> workouts, FileStorage.OperationResult<Void> result) {
+            this.path = path;
+            this.workouts = workouts;
+            this.result = result;
+        }
+    }
+
+    // Identity of a workout for de-duplication: date, normalized exercise, weight, reps and sets.
+    private static final class DedupKey {
+        private final int epochDay;
+        private final int exerciseId;
+        private final long weightBits;
+        private final int reps;
+        private final int sets;
+
+        private DedupKey(Workout workout) {
+            this.epochDay = workout.getEpochDay();
+            this.exerciseId = workout.getExerciseId();
+            this.weightBits = Double.doubleToLongBits(workout.getWeight());
+            this.reps = workout.getReps();
+            this.sets = workout.getSets();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof DedupKey)) {
+                return false;
+            }
+            DedupKey key = (DedupKey) other;
+            return epochDay == key.epochDay && weightBits == key.weightBits && reps == key.reps
+                    && sets == key.sets && exerciseId == key.exerciseId;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = epochDay;
+            hash = 31 * hash + exerciseId;
+            hash = 31 * hash + Long.hashCode(weightBits);
+            hash = 31 * hash + reps;
+            return 31 * hash + sets;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer over a FileChannel with a large direct buffer, encoding text as UTF-8.
+ *
+ * Characters are encoded straight into the direct buffer (ASCII is a single store), and a
+ * full buffer goes to the channel in one write, so the kernel sees few large writes and no
+ * intermediate heap copies. Unpaired surrogates are written as '?', as the JDK encoders do.
+ * {@link #sync()} forces the data and file size to disk. Time spent in channel writes and
+ * syncs is tracked for per-save statistics.
+ *
+ * Direct memory is only released by GC, so each thread keeps the buffer of its last closed
+ * writer and hands it to the next writer it opens instead of allocating one per save. A
+ * spare larger than requested is used only up to the requested size.
+ */
+final class ChannelFileWriter extends Writer {
+
+    static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final ThreadLocal<ByteBuffer> SPARE_BUFFER = new ThreadLocal<>();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int bufferBytes;
+    private char pendingHighSurrogate;
+    private long bytesWritten;
+    private long writeNanos;
+    private long syncNanos;
+    private boolean closed;
+
+    ChannelFileWriter(Path path) throws IOException {
+        this(path, DEFAULT_BUFFER_BYTES);
+    }
+
+    ChannelFileWriter(Path path, int bufferBytes) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), bufferBytes);
+    }
+
+    private ChannelFileWriter(FileChannel channel, int bufferBytes) {
+        this.channel = channel;
+        this.bufferBytes = Math.max(bufferBytes, 16);
+        ByteBuffer spare = SPARE_BUFFER.get();
+        if (spare != null && spare.capacity() >= this.bufferBytes) {
+            SPARE_BUFFER.remove();
+            this.buffer = spare;
+        } else {
+            this.buffer = ByteBuffer.allocateDirect(this.bufferBytes);
+        }
+        buffer.clear().limit(this.bufferBytes);
+    }
+
+    // Writer that adds to the end of the file, creating it if needed, instead of replacing it.
+    static ChannelFileWriter appending(Path path, int bufferBytes) throws IOException {
+        return new ChannelFileWriter(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND), bufferBytes);
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        ensureOpen();
+        for (int i = offset, end = offset + length; i < end; i++) {
+            put(chars[i]);
+        }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        ensureOpen();
+        for (int i = offset, end = offset + length; i < end; i++) {
+            put(text.charAt(i));
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        put((char) c);
+    }
+
+    void newLine() throws IOException {
+        write(LINE_SEPARATOR);
+    }
+
+    // Raw bytes for binary formats, sharing the same buffer and accounting.
+    OutputStream asOutputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                ensureOpen();
+                ensureRoom(1);
+                buffer.put((byte) b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                ensureOpen();
+                while (length > 0) {
+                    ensureRoom(1);
+                    int chunk = Math.min(length, buffer.remaining());
+                    buffer.put(bytes, offset, chunk);
+                    offset += chunk;
+                    length -= chunk;
+                }
+            }
+        };
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        drain();
+    }
+
+    // Flush and force file contents and size to stable storage; returns the time spent forcing.
+    long sync() throws IOException {
+        ensureOpen();
+        finishText();
+        drain();
+        long start = System.nanoTime();
+        channel.force(true);
+        long nanos = System.nanoTime() - start;
+        syncNanos += nanos;
+        return nanos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            finishText();
+            drain();
+        } finally {
+            try {
+                channel.close();
+            } finally {
+                ByteBuffer spare = SPARE_BUFFER.get();
+                if (spare == null || spare.capacity() < buffer.capacity()) {
+                    SPARE_BUFFER.set(buffer);
+                }
+            }
+        }
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    long getWriteNanos() {
+        return writeNanos;
+    }
+
+    long getSyncNanos() {
+        return syncNanos;
+    }
+
+    /**
+     * Force a directory entry change (such as a rename into it) to disk. Returns the time
+     * spent, or -1 when the platform cannot open directories for syncing.
+     */
+    static long syncDirectory(Path directory) {
+        long start = System.nanoTime();
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+            return System.nanoTime() - start;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // After close the buffer may already belong to another writer on this thread.
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Writer is closed");
+        }
+    }
+
+    // A high surrogate still waiting for its pair at the end of the text is unpaired.
+    private void finishText() throws IOException {
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            ensureRoom(1);
+            buffer.put((byte) '?');
+        }
+    }
+
+    private void put(char c) throws IOException {
+        if (c < 0x80 && pendingHighSurrogate == 0) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) c);
+            return;
+        }
+        ensureRoom(4);
+        if (pendingHighSurrogate != 0) {
+            char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                return;
+            }
+            buffer.put((byte) '?');
+            ensureRoom(4);
+        }
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear().limit(bufferBytes);
+        writeNanos += System.nanoTime() - start;
+    }
+}
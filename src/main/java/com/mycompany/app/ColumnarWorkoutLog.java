@@ -0,0 +1,345 @@
+package com.mycompany.app;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WorkoutLog that stores entries in primitive columns instead of one object per workout.
+ *
+ * Weight, reps, sets and epoch days live in parallel arrays, completion is a bitset and
+ * date text and exercise names are dictionary ids, so a row costs roughly 40 bytes plus its
+ * note. Workouts handed out are lightweight views over a row rather than stored objects.
+ * Snapshots share the columns. Appends write only past every snapshot's size, so they
+ * copy nothing unless the arrays must grow; the next removal or completion after a
+ * snapshot copies the columns first.
+ */
+public class ColumnarWorkoutLog extends WorkoutLog {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Columns columns = new Columns(INITIAL_CAPACITY);
+    private final Map<String, Integer> dateIds = new HashMap<>();
+    private final Map<String, Integer> exerciseIds = new HashMap<>();
+
+    @Override
+    public synchronized void addWorkout(Workout workout) {
+        if (workout == null) {
+            System.out.println("Cannot add a null workout.");
+            return;
+        }
+
+        // No unshare: the row and any new dictionary entries go past what snapshots can read.
+        Columns c = columns;
+        c.ensureCapacity(c.size + 1);
+        int row = c.size;
+        c.epochDays[row] = workout.getEpochDay();
+        c.dateIds[row] = c.dateIdOf(dateIds, workout.getDate());
+        c.exerciseIds[row] = c.exerciseIdOf(exerciseIds, workout.getExercise());
+        c.weights[row] = workout.getWeight();
+        c.reps[row] = workout.getReps();
+        c.sets[row] = workout.getSets();
+        c.notes[row] = workout.getNote() == null || workout.getNote().isEmpty() ? "" : workout.getNote();
+        c.setCompleted(row, workout.isCompleted());
+        c.size++;
+        fireAdded(row, new RowView(c, row));
+    }
+
+    @Override
+    public synchronized void removeWorkout(int workoutIndex) {
+        Columns c = columns;
+        if (workoutIndex < 0 || workoutIndex >= c.size) {
+            System.out.println("Invalid index. No workout removed.");
+            return;
+        }
+
+        // Detach the removed row first so listeners see its values, not whatever shifts into its slot.
+        Workout removed = new RowView(c, workoutIndex).detach();
+        c.unshare();
+        c.remove(workoutIndex);
+        fireRemoved(workoutIndex, removed);
+    }
+
+    @Override
+    public synchronized Workout getWorkout(int workoutIndex) {
+        if (workoutIndex >= 0 && workoutIndex < columns.size) {
+            return new RowView(columns, workoutIndex);
+        }
+        System.out.println("Invalid index. Returning null.");
+        return null;
+    }
+
+    @Override
+    public synchronized void listAllWorkouts() {
+        Columns c = columns;
+        if (c.size == 0) {
+            System.out.println("No workouts in the log.");
+            return;
+        }
+        for (int i = 0; i < c.size; i++) {
+            System.out.println("[" + i + "] " + new RowView(c, i));
+        }
+    }
+
+    @Override
+    public synchronized void markCompleted(int index) {
+        Columns c = columns;
+        if (index >= 0 && index < c.size) {
+            c.unshare();
+            c.setCompleted(index, true);
+            System.out.println("Workout marked as completed.");
+            fireCompleted(index, new RowView(c, index));
+        } else {
+            System.out.println("Invalid index. Cannot mark completed.");
+        }
+    }
+
+    @Override
+    public synchronized int getTotalWorkouts() {
+        return columns.size;
+    }
+
+    /**
+     * Returns a read-only point-in-time view of the columns in O(1). The view shares the
+     * arrays; appends write past its size and removals or completions copy the arrays
+     * first, so later edits do not show through.
+     */
+    @Override
+    public synchronized List<Workout> snapshot() {
+        Columns frozen = columns.share();
+        return new AbstractList<Workout>() {
+            @Override
+            public Workout get(int index) {
+                if (index < 0 || index >= frozen.size) {
+                    throw new IndexOutOfBoundsException("Index " + index + ", size " + frozen.size);
+                }
+                return new RowView(frozen, index).detach();
+            }
+
+            @Override
+            public int size() {
+                return frozen.size;
+            }
+        };
+    }
+
+    // Parallel primitive arrays holding every row; dictionaries map ids back to text.
+    private static final class Columns {
+        private int size;
+        private int[] epochDays;
+        private int[] dateIds;
+        private int[] exerciseIds;
+        private double[] weights;
+        private int[] reps;
+        private int[] sets;
+        private long[] completedBits;
+        private String[] notes;
+        // Append-only dictionaries: entries are never changed once written, so snapshots share them.
+        private String[] dateTexts;
+        private int dateCount;
+        private String[] exerciseNames;
+        private int[] exerciseDictionaryIds; // ExerciseDictionary id for each local exercise id
+        private int exerciseCount;
+        private boolean shared; // True while a snapshot may still be reading the row arrays
+
+        private Columns(int capacity) {
+            epochDays = new int[capacity];
+            dateIds = new int[capacity];
+            exerciseIds = new int[capacity];
+            weights = new double[capacity];
+            reps = new int[capacity];
+            sets = new int[capacity];
+            completedBits = new long[(capacity + 63) / 64];
+            notes = new String[capacity];
+            dateTexts = new String[Math.max(capacity, 1)];
+            exerciseNames = new String[Math.max(capacity, 1)];
+            exerciseDictionaryIds = new int[Math.max(capacity, 1)];
+        }
+
+        private int dateIdOf(Map<String, Integer> ids, String value) {
+            String key = value == null ? "" : value;
+            Integer id = ids.get(key);
+            if (id == null) {
+                if (dateCount == dateTexts.length) {
+                    dateTexts = Arrays.copyOf(dateTexts, dateCount * 2);
+                }
+                id = dateCount++;
+                dateTexts[id] = key;
+                ids.put(key, id);
+            }
+            return id;
+        }
+
+        private int exerciseIdOf(Map<String, Integer> ids, String value) {
+            String key = value == null ? "" : value;
+            Integer id = ids.get(key);
+            if (id == null) {
+                if (exerciseCount == exerciseNames.length) {
+                    exerciseNames = Arrays.copyOf(exerciseNames, exerciseCount * 2);
+                    exerciseDictionaryIds = Arrays.copyOf(exerciseDictionaryIds, exerciseCount * 2);
+                }
+                id = exerciseCount++;
+                exerciseNames[id] = key;
+                exerciseDictionaryIds[id] = ExerciseDictionary.idOf(value);
+                ids.put(key, id);
+            }
+            return id;
+        }
+
+        // Growing copies every row array, which also ends any sharing with snapshots.
+        private void ensureCapacity(int needed) {
+            if (needed <= epochDays.length) {
+                return;
+            }
+            int capacity = Math.max(needed, epochDays.length + (epochDays.length >> 1));
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            dateIds = Arrays.copyOf(dateIds, capacity);
+            exerciseIds = Arrays.copyOf(exerciseIds, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            reps = Arrays.copyOf(reps, capacity);
+            sets = Arrays.copyOf(sets, capacity);
+            completedBits = Arrays.copyOf(completedBits, (capacity + 63) / 64);
+            notes = Arrays.copyOf(notes, capacity);
+            shared = false;
+        }
+
+        private boolean isCompleted(int row) {
+            return (completedBits[row >>> 6] & (1L << (row & 63))) != 0;
+        }
+
+        private void setCompleted(int row, boolean completed) {
+            if (completed) {
+                completedBits[row >>> 6] |= 1L << (row & 63);
+            } else {
+                completedBits[row >>> 6] &= ~(1L << (row & 63));
+            }
+        }
+
+        private void remove(int row) {
+            int tail = size - row - 1;
+            System.arraycopy(epochDays, row + 1, epochDays, row, tail);
+            System.arraycopy(dateIds, row + 1, dateIds, row, tail);
+            System.arraycopy(exerciseIds, row + 1, exerciseIds, row, tail);
+            System.arraycopy(weights, row + 1, weights, row, tail);
+            System.arraycopy(reps, row + 1, reps, row, tail);
+            System.arraycopy(sets, row + 1, sets, row, tail);
+            System.arraycopy(notes, row + 1, notes, row, tail);
+            for (int i = row; i < size - 1; i++) {
+                setCompleted(i, isCompleted(i + 1));
+            }
+            size--;
+            setCompleted(size, false);
+            notes[size] = null;
+        }
+
+        // Hand the current arrays to a snapshot; they stay untouched from now on.
+        private Columns share() {
+            Columns view = new Columns(0);
+            view.size = size;
+            view.epochDays = epochDays;
+            view.dateIds = dateIds;
+            view.exerciseIds = exerciseIds;
+            view.weights = weights;
+            view.reps = reps;
+            view.sets = sets;
+            view.completedBits = completedBits;
+            view.notes = notes;
+            view.dateTexts = dateTexts;
+            view.exerciseNames = exerciseNames;
+            view.exerciseDictionaryIds = exerciseDictionaryIds;
+            shared = true;
+            return view;
+        }
+
+        // Called before changing existing rows: take private copies if a snapshot holds the current arrays.
+        private void unshare() {
+            if (!shared) {
+                return;
+            }
+            int capacity = epochDays.length;
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            dateIds = Arrays.copyOf(dateIds, capacity);
+            exerciseIds = Arrays.copyOf(exerciseIds, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            reps = Arrays.copyOf(reps, capacity);
+            sets = Arrays.copyOf(sets, capacity);
+            completedBits = Arrays.copyOf(completedBits, completedBits.length);
+            notes = Arrays.copyOf(notes, capacity);
+            shared = false;
+        }
+    }
+
+    /**
+     * Flyweight Workout reading one row of the columns. Views are positional: after a
+     * removal shifts rows, a view reflects whichever workout now occupies its index.
+     */
+    private static final class RowView extends Workout {
+        private final Columns columns;
+        private final int row;
+
+        private RowView(Columns columns, int row) {
+            super(null, DateCodec.INVALID, null, 0, 0, 0, null, false);
+            this.columns = columns;
+            this.row = row;
+        }
+
+        @Override
+        public String getDate() {
+            return columns.dateTexts[columns.dateIds[row]];
+        }
+
+        @Override
+        public int getEpochDay() {
+            return columns.epochDays[row];
+        }
+
+        @Override
+        public String getExercise() {
+            return columns.exerciseNames[columns.exerciseIds[row]];
+        }
+
+        @Override
+        public int getExerciseId() {
+            return columns.exerciseDictionaryIds[columns.exerciseIds[row]];
+        }
+
+        @Override
+        public double getWeight() {
+            return columns.weights[row];
+        }
+
+        @Override
+        public int getReps() {
+            return columns.reps[row];
+        }
+
+        @Override
+        public int getSets() {
+            return columns.sets[row];
+        }
+
+        @Override
+        public String getNote() {
+            return columns.notes[row];
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return columns.isCompleted(row);
+        }
+
+        @Override
+        public void setCompleted(boolean completed) {
+            columns.unshare();
+            columns.setCompleted(row, completed);
+        }
+
+        // Copy the row into a standalone Workout that no longer tracks the columns.
+        private Workout detach() {
+            return new Workout(getDate(), getEpochDay(), getExercise(), getWeight(), getReps(), getSets(),
+                    getNote(), isCompleted());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.mycompany.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * WorkoutLog for multi-threaded services, partitioned by user.
+ *
+ * Each user's workouts live in their own partition with its own lock, so writers for
+ * different users never contend. A partition publishes an immutable (array, size) state
+ * through a volatile field: appends fill the next free slot and then publish a larger
+ * size, so readers take a stable snapshot with one volatile read and never block.
+ *
+ * The inherited WorkoutLog methods act on a default partition, and only that partition
+ * notifies log listeners, so listeners keep seeing the same rows as snapshot().
+ */
+public class ConcurrentWorkoutLog extends WorkoutLog {
+
+    public static final String DEFAULT_USER = "";
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ConcurrentHashMap<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    @Override
+    public void addWorkout(Workout workout) {
+        addWorkout(DEFAULT_USER, workout);
+    }
+
+    @Override
+    public void addWorkouts(Collection<Workout> workouts) {
+        addWorkouts(DEFAULT_USER, workouts);
+    }
+
+    @Override
+    public void removeWorkout(int workoutIndex) {
+        removeWorkout(DEFAULT_USER, workoutIndex);
+    }
+
+    @Override
+    public Workout getWorkout(int workoutIndex) {
+        return getWorkout(DEFAULT_USER, workoutIndex);
+    }
+
+    @Override
+    public void listAllWorkouts() {
+        List<Workout> workouts = snapshot(DEFAULT_USER);
+        if (workouts.isEmpty()) {
+            System.out.println("No workouts in the log.");
+            return;
+        }
+        for (int i = 0; i < workouts.size(); i++) {
+            System.out.println("[" + i + "] " + workouts.get(i));
+        }
+    }
+
+    @Override
+    public void markCompleted(int index) {
+        markCompleted(DEFAULT_USER, index);
+    }
+
+    @Override
+    public int getTotalWorkouts() {
+        return getTotalWorkouts(DEFAULT_USER);
+    }
+
+    // Stable snapshot of the default partition; later edits do not show through.
+    @Override
+    public List<Workout> snapshot() {
+        return snapshot(DEFAULT_USER);
+    }
+
+    // The default partition's lock orders the registration against the edits that notify.
+    @Override
+    public List<Workout> subscribe(WorkoutLogListener listener) {
+        Partition partition = partition(DEFAULT_USER);
+        partition.lock.lock();
+        try {
+            addListener(listener);
+            return snapshot(DEFAULT_USER);
+        } finally {
+            partition.lock.unlock();
+        }
+    }
+
+    public void addWorkout(String user, Workout workout) {
+        if (workout == null) {
+            System.out.println("Cannot add a null workout.");
+            return;
+        }
+        Partition partition = partition(user);
+        partition.lock.lock();
+        try {
+            int index = partition.append(workout);
+            if (partition.notifies) {
+                fireAdded(index, workout);
+            }
+        } finally {
+            partition.lock.unlock();
+        }
+    }
+
+    // Append several workouts to one user's partition under a single lock acquisition.
+    public void addWorkouts(String user, Collection<Workout> workouts) {
+        Partition partition = partition(user);
+        partition.lock.lock();
+        try {
+            for (Workout workout : workouts) {
+                if (workout == null) {
+                    System.out.println("Cannot add a null workout.");
+                    continue;
+                }
+                int index = partition.append(workout);
+                if (partition.notifies) {
+                    fireAdded(index, workout);
+                }
+            }
+        } finally {
+            partition.lock.unlock();
+        }
+    }
+
+    public void removeWorkout(String user, int workoutIndex) {
+        Partition partition = partitions.get(key(user));
+        if (partition == null) {
+            System.out.println("Invalid index. No workout removed.");
+            return;
+        }
+        partition.lock.lock();
+        try {
+            Workout removed = partition.remove(workoutIndex);
+            if (removed == null) {
+                System.out.println("Invalid index. No workout removed.");
+            } else if (partition.notifies) {
+                fireRemoved(workoutIndex, removed);
+            }
+        } finally {
+            partition.lock.unlock();
+        }
+    }
+
+    public Workout getWorkout(String user, int workoutIndex) {
+        State state = state(user);
+        if (workoutIndex >= 0 && workoutIndex < state.size) {
+            return state.items[workoutIndex];
+        }
+        System.out.println("Invalid index. Returning null.");
+        return null;
+    }
+
+    // Completion flips a volatile flag in place, so it needs no copy and no reader waits on it.
+    public void markCompleted(String user, int index) {
+        Partition partition = partitions.get(key(user));
+        if (partition == null) {
+            System.out.println("Invalid index. Cannot mark completed.");
+            return;
+        }
+        partition.lock.lock();
+        try {
+            State state = partition.state;
+            if (index >= 0 && index < state.size) {
+                Workout workout = state.items[index];
+                workout.setCompleted(true);
+                if (partition.notifies) {
+                    fireCompleted(index, workout);
+                }
+            } else {
+                System.out.println("Invalid index. Cannot mark completed.");
+            }
+        } finally {
+            partition.lock.unlock();
+        }
+    }
+
+    public int getTotalWorkouts(String user) {
+        return state(user).size;
+    }
+
+    /**
+     * Point-in-time view of one user's workouts. Taking it costs one volatile read and no
+     * copying; the view keeps its size and order whatever writers do afterwards.
+     */
+    public List<Workout> snapshot(String user) {
+        State state = state(user);
+        return state.size == 0 ? Collections.emptyList() : new WorkoutSnapshot(state.items, state.size);
+    }
+
+    // Users that have at least one partition, in no particular order.
+    public List<String> getUsers() {
+        return new ArrayList<>(partitions.keySet());
+    }
+
+    // Total workouts across every partition; each partition is read at its own point in time.
+    public int getTotalWorkoutsAllUsers() {
+        int total = 0;
+        for (Partition partition : partitions.values()) {
+            total += partition.state.size;
+        }
+        return total;
+    }
+
+    private Partition partition(String user) {
+        return partitions.computeIfAbsent(key(user), name -> new Partition(DEFAULT_USER.equals(name)));
+    }
+
+    private State state(String user) {
+        Partition partition = partitions.get(key(user));
+        return partition == null ? State.EMPTY : partition.state;
+    }
+
+    private static String key(String user) {
+        return user == null ? DEFAULT_USER : user;
+    }
+
+    // Immutable publication unit: slots [0, size) of items never change once published.
+    private static final class State {
+        private static final State EMPTY = new State(new Workout[0], 0);
+
+        private final Workout[] items;
+        private final int size;
+
+        private State(Workout[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+    }
+
+    private static final class Partition {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final boolean notifies;
+        private volatile State state = State.EMPTY;
+
+        private Partition(boolean notifies) {
+            this.notifies = notifies;
+        }
+
+        // Caller holds the lock. Writing past the published size is invisible to readers.
+        private int append(Workout workout) {
+            State current = state;
+            Workout[] items = current.items;
+            if (current.size == items.length) {
+                items = Arrays.copyOf(items, Math.max(INITIAL_CAPACITY, items.length * 2));
+            }
+            items[current.size] = workout;
+            state = new State(items, current.size + 1);
+            return current.size;
+        }
+
+        // Caller holds the lock. Removal shifts slots, so it publishes a fresh array.
+        private Workout remove(int index) {
+            State current = state;
+            if (index < 0 || index >= current.size) {
+                return null;
+            }
+            Workout[] items = new Workout[current.items.length];
+            System.arraycopy(current.items, 0, items, 0, index);
+            System.arraycopy(current.items, index + 1, items, index, current.size - index - 1);
+            state = new State(items, current.size - 1);
+            return current.items[index];
+        }
+    }
+}
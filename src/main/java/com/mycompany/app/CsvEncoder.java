@@ -0,0 +1,189 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Reusable encoder that builds workout CSV rows in a char buffer, the write-side partner of
+ * CsvTokenizer. Fields are cleaned (CR/LF become spaces, then trimmed), quoted when they
+ * hold a comma or quote, and escaped in a single pass; whole-number and short decimal
+ * weights are formatted without going through Double.toString. Rows read back through
+ * CsvTokenizer unchanged. Instances are not thread-safe; use {@link #local()}.
+ */
+final class CsvEncoder {
+
+    private static final ThreadLocal<CsvEncoder> LOCAL = ThreadLocal.withInitial(CsvEncoder::new);
+    // Doubles in [1e-3, 1e7) print in plain notation; outside that Double.toString switches to E notation.
+    private static final double PLAIN_MIN = 1e-3;
+    private static final double PLAIN_MAX = 1e7;
+
+    private char[] buffer = new char[256];
+    private int length;
+    private boolean rowStarted;
+
+    static CsvEncoder local() {
+        return LOCAL.get().reset();
+    }
+
+    CsvEncoder reset() {
+        length = 0;
+        rowStarted = false;
+        return this;
+    }
+
+    // Start the next field, writing the separator unless it is the first field of the row.
+    private void separator() {
+        if (rowStarted) {
+            append(',');
+        }
+        rowStarted = true;
+    }
+
+    CsvEncoder field(CharSequence value) {
+        return field(value, 0, value == null ? 0 : value.length());
+    }
+
+    CsvEncoder field(CharSequence value, int start, int end) {
+        separator();
+        if (value == null) {
+            return this;
+        }
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        boolean quote = false;
+        for (int i = start; i < end && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"';
+        }
+
+        ensureCapacity(length + (end - start) * 2 + 2);
+        if (quote) {
+            buffer[length++] = '"';
+        }
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '\r' || c == '\n') {
+                buffer[length++] = ' ';
+            } else {
+                if (c == '"') {
+                    buffer[length++] = '"';
+                }
+                buffer[length++] = c;
+            }
+        }
+        if (quote) {
+            buffer[length++] = '"';
+        }
+        return this;
+    }
+
+    // Copy a tokenized field, re-escaping it the same way.
+    CsvEncoder field(CsvTokenizer tokens, int index) {
+        int start = tokens.start(index);
+        return field(tokens.text(), start, start + tokens.length(index));
+    }
+
+    CsvEncoder field(int value) {
+        separator();
+        if (value == Integer.MIN_VALUE) {
+            appendText(Integer.toString(value));
+            return this;
+        }
+        ensureCapacity(length + 11);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        appendDigits(value);
+        return this;
+    }
+
+    CsvEncoder field(boolean value) {
+        separator();
+        appendText(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Formats the value exactly as String.valueOf(double) would. Values in plain-notation
+     * range with at most two decimals are written from their digits; others fall back.
+     */
+    CsvEncoder field(double value) {
+        separator();
+        double magnitude = Math.abs(value);
+        if (magnitude == 0 || !(magnitude >= PLAIN_MIN && magnitude < PLAIN_MAX)) {
+            appendText(Double.toString(value));
+            return this;
+        }
+        for (int decimals = 0; decimals <= 2; decimals++) {
+            double scale = decimals == 0 ? 1 : decimals == 1 ? 10 : 100;
+            double scaled = magnitude * scale;
+            long digits = (long) scaled;
+            if (digits == scaled && digits / scale == magnitude) {
+                ensureCapacity(length + 24);
+                if (value < 0) {
+                    buffer[length++] = '-';
+                }
+                long whole = digits / (long) scale;
+                appendDigits(whole);
+                buffer[length++] = '.';
+                if (decimals == 0) {
+                    buffer[length++] = '0';
+                } else {
+                    long fraction = digits % (long) scale;
+                    if (decimals == 2) {
+                        buffer[length++] = (char) ('0' + fraction / 10);
+                    }
+                    buffer[length++] = (char) ('0' + fraction % 10);
+                }
+                return this;
+            }
+        }
+        appendText(Double.toString(value));
+        return this;
+    }
+
+    void writeTo(Writer out) throws IOException {
+        out.write(buffer, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length);
+    }
+
+    private void appendDigits(long value) {
+        int start = length;
+        do {
+            buffer[length++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            char c = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = c;
+        }
+    }
+
+    private void appendText(String text) {
+        ensureCapacity(length + text.length());
+        text.getChars(0, text.length(), buffer, length);
+        length += text.length();
+    }
+
+    private void append(char c) {
+        ensureCapacity(length + 1);
+        buffer[length++] = c;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (buffer.length < needed) {
+            buffer = Arrays.copyOf(buffer, Math.max(needed, buffer.length * 2));
+        }
+    }
+}
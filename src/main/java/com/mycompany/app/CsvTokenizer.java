@@ -0,0 +1,360 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable tokenizer for one workout CSV row at a time.
+ *
+ * The row is kept in a char buffer and each field is exposed as an offset and length into
+ * a second buffer holding the unquoted, trimmed field text, so tokenizing a row allocates
+ * nothing once the buffers have grown to fit. Numbers are parsed straight from the buffer,
+ * and repeated text such as dates and exercise names comes from a small string pool.
+ *
+ * Quoting follows the rules the app has always used: a double quote toggles quoting
+ * anywhere in a field, a doubled quote inside quotes is a literal quote, commas outside
+ * quotes separate fields, and every field is trimmed. Instances are not thread-safe; use
+ * {@link #local()} or one instance per thread.
+ */
+final class CsvTokenizer {
+
+    private static final ThreadLocal<CsvTokenizer> LOCAL = ThreadLocal.withInitial(CsvTokenizer::new);
+    private static final int POOL_SIZE = 512;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private char[] line = new char[256];
+    private int lineLength;
+    private char[] fields = new char[256];
+    private CharSequence fieldText = CharBuffer.wrap(fields);
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int fieldCount;
+    private final String[] pool = new String[POOL_SIZE];
+
+    private final char[] readBuffer = new char[8192];
+    private int readPosition;
+    private int readLimit;
+
+    // Tokenizer owned by the calling thread, for code paths that parse one row at a time.
+    static CsvTokenizer local() {
+        return LOCAL.get();
+    }
+
+    CsvTokenizer tokenize(String text) {
+        int length = text.length();
+        ensureLineCapacity(length);
+        text.getChars(0, length, line, 0);
+        lineLength = length;
+        split();
+        return this;
+    }
+
+    CsvTokenizer tokenize(char[] source, int offset, int length) {
+        ensureLineCapacity(length);
+        System.arraycopy(source, offset, line, 0, length);
+        lineLength = length;
+        split();
+        return this;
+    }
+
+    // Tokenize UTF-8 bytes [start, end) of the buffer; ASCII rows are widened without decoding.
+    CsvTokenizer tokenize(ByteBuffer source, int start, int end) {
+        int length = end - start;
+        ensureLineCapacity(length);
+        for (int i = 0; i < length; i++) {
+            byte b = source.get(start + i);
+            if (b < 0) {
+                byte[] bytes = new byte[length];
+                source.get(start, bytes, 0, length);
+                return tokenize(new String(bytes, StandardCharsets.UTF_8));
+            }
+            line[i] = (char) b;
+        }
+        lineLength = length;
+        split();
+        return this;
+    }
+
+    /**
+     * Reads and tokenizes the next line of the reader, ending lines the same way
+     * BufferedReader.readLine does (LF, CR or CRLF). Returns false at end of input.
+     * The reader should only be read through this tokenizer.
+     */
+    boolean readLine(Reader in) throws IOException {
+        int length = 0;
+        boolean any = false;
+        while (true) {
+            if (readPosition == readLimit) {
+                readLimit = Math.max(in.read(readBuffer), 0);
+                readPosition = 0;
+                if (readLimit == 0) {
+                    if (!any) {
+                        return false;
+                    }
+                    break;
+                }
+            }
+            any = true;
+            int start = readPosition;
+            while (readPosition < readLimit && readBuffer[readPosition] != '\n' && readBuffer[readPosition] != '\r') {
+                readPosition++;
+            }
+            int chunk = readPosition - start;
+            ensureLineCapacity(length + chunk);
+            System.arraycopy(readBuffer, start, line, length, chunk);
+            length += chunk;
+            if (readPosition < readLimit) {
+                char terminator = readBuffer[readPosition++];
+                if (terminator == '\r') {
+                    if (readPosition == readLimit) {
+                        readLimit = Math.max(in.read(readBuffer), 0);
+                        readPosition = 0;
+                    }
+                    if (readPosition < readLimit && readBuffer[readPosition] == '\n') {
+                        readPosition++;
+                    }
+                }
+                break;
+            }
+        }
+        lineLength = length;
+        split();
+        return true;
+    }
+
+    // Forget buffered input so the tokenizer can read from a new reader.
+    void resetReader() {
+        readPosition = 0;
+        readLimit = 0;
+    }
+
+    // The whole current row as a String; allocates, so keep it for error messages.
+    String line() {
+        return new String(line, 0, lineLength);
+    }
+
+    boolean lineEquals(String text) {
+        if (text.length() != lineLength) {
+            return false;
+        }
+        for (int i = 0; i < lineLength; i++) {
+            if (line[i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // True when the row is empty or only whitespace, matching line.trim().isEmpty().
+    boolean isBlankLine() {
+        for (int i = 0; i < lineLength; i++) {
+            if (line[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    // Field cursor: text of field i is chars()[start(i), start(i) + length(i)).
+    char[] chars() {
+        return fields;
+    }
+
+    int start(int index) {
+        return starts[index];
+    }
+
+    int length(int index) {
+        return ends[index] - starts[index];
+    }
+
+    // Field text as a CharSequence over the shared buffer; valid until the next row.
+    CharSequence text() {
+        return fieldText;
+    }
+
+    String field(int index) {
+        int length = length(index);
+        return length == 0 ? "" : new String(fields, starts[index], length);
+    }
+
+    // Field text from a small pool, so text that repeats row after row is not re-allocated.
+    String pooled(int index) {
+        int start = starts[index];
+        int end = ends[index];
+        if (start == end) {
+            return "";
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + fields[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (POOL_SIZE - 1);
+        String cached = pool[slot];
+        if (cached != null && cached.length() == end - start) {
+            boolean same = true;
+            for (int i = start; i < end && same; i++) {
+                same = cached.charAt(i - start) == fields[i];
+            }
+            if (same) {
+                return cached;
+            }
+        }
+        String value = new String(fields, start, end - start);
+        pool[slot] = value;
+        return value;
+    }
+
+    boolean fieldEqualsIgnoreCase(int index, String text) {
+        int start = starts[index];
+        int length = ends[index] - start;
+        if (length != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char a = fields[start + i];
+            char b = text.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the field as an int with Integer.parseInt semantics; plain decimal fields are
+     * read from the buffer and anything else is handed to Integer.parseInt.
+     */
+    int intField(int index) {
+        int start = starts[index];
+        int end = ends[index];
+        int i = start;
+        boolean negative = false;
+        if (i < end && (fields[i] == '-' || fields[i] == '+')) {
+            negative = fields[i] == '-';
+            i++;
+        }
+        if (i == end || end - i > 9) {
+            return Integer.parseInt(field(index));
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = fields[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(field(index));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses the field as a double with Double.parseDouble semantics. Plain decimals with
+     * at most 15 significant digits are computed exactly from the buffer (one correctly
+     * rounded division by an exact power of ten); anything else goes to Double.parseDouble.
+     */
+    double doubleField(int index) {
+        int start = starts[index];
+        int end = ends[index];
+        int i = start;
+        boolean negative = false;
+        if (i < end && (fields[i] == '-' || fields[i] == '+')) {
+            negative = fields[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int fractionDigits = 0;
+        int digits = 0;
+        boolean point = false;
+        for (; i < end; i++) {
+            char c = fields[i];
+            if (c == '.' && !point) {
+                point = true;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                return Double.parseDouble(field(index));
+            }
+            digits++;
+            if (point) {
+                fractionDigits++;
+            }
+            if (mantissa != 0 || digit != 0) {
+                significant++;
+            }
+            mantissa = mantissa * 10 + digit;
+            if (significant > 15 || fractionDigits >= POWERS_OF_TEN.length) {
+                return Double.parseDouble(field(index));
+            }
+        }
+        if (digits == 0) {
+            return Double.parseDouble(field(index));
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    // Split line into unquoted, trimmed fields written to the field buffer.
+    private void split() {
+        if (fields.length < lineLength) {
+            fields = new char[Math.max(lineLength, fields.length * 2)];
+            fieldText = CharBuffer.wrap(fields);
+        }
+        fieldCount = 0;
+        int out = 0;
+        int fieldStart = 0;
+        boolean inQuotes = false;
+        for (int i = 0; i < lineLength; i++) {
+            char c = line[i];
+            if (c == '"') {
+                if (inQuotes && i + 1 < lineLength && line[i + 1] == '"') {
+                    fields[out++] = '"';
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == ',' && !inQuotes) {
+                addField(fieldStart, out);
+                fieldStart = out;
+            } else {
+                fields[out++] = c;
+            }
+        }
+        addField(fieldStart, out);
+    }
+
+    private void addField(int start, int end) {
+        while (start < end && fields[start] <= ' ') {
+            start++;
+        }
+        while (end > start && fields[end - 1] <= ' ') {
+            end--;
+        }
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private void ensureLineCapacity(int length) {
+        if (line.length < length) {
+            line = Arrays.copyOf(line, Math.max(length, line.length * 2));
+        }
+    }
+}
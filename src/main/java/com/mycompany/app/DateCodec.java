@@ -0,0 +1,140 @@
+package com.mycompany.app;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recognizes the workout date formats (ISO yyyy-MM-dd, US M/d/yy and M/d/yyyy) with a
+ * hand-written scanner and converts them to epoch days without exceptions or formatter
+ * allocation. Results for repeated date strings are cached.
+ */
+public final class DateCodec {
+
+    /** Epoch-day value returned for text that is not a recognized date. */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    private static final int CACHE_LIMIT = 4096;
+    private static final ConcurrentHashMap<String, Integer> CACHE = new ConcurrentHashMap<>();
+
+    private DateCodec() {
+    }
+
+    public static boolean isValid(String text) {
+        return toEpochDay(text) != INVALID;
+    }
+
+    // Cached conversion used on the hot load/save paths where the same dates repeat row after row.
+    public static int toEpochDay(String text) {
+        if (text == null) {
+            return INVALID;
+        }
+        Integer cached = CACHE.get(text);
+        if (cached != null) {
+            return cached;
+        }
+
+        int epochDay = parseEpochDay(text, 0, text.length());
+        if (CACHE.size() >= CACHE_LIMIT) {
+            CACHE.clear();
+        }
+        CACHE.put(text, epochDay);
+        return epochDay;
+    }
+
+    /**
+     * Parses the date in text[start, end) and returns its epoch day, or INVALID.
+     * ISO dates are resolved strictly, while the US formats clamp an out-of-range
+     * day to the end of the month the same way the previous M/d/yy formatters did.
+     */
+    public static int parseEpochDay(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length == 10 && text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-') {
+            int year = digits(text, start, start + 4);
+            int month = digits(text, start + 5, start + 7);
+            int day = digits(text, start + 8, start + 10);
+            if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+                return INVALID;
+            }
+            return epochDay(year, month, day);
+        }
+
+        int firstSlash = indexOf(text, '/', start, end);
+        int secondSlash = firstSlash < 0 ? -1 : indexOf(text, '/', firstSlash + 1, end);
+        if (secondSlash < 0) {
+            return INVALID;
+        }
+
+        int monthDigits = firstSlash - start;
+        int dayDigits = secondSlash - firstSlash - 1;
+        int yearDigits = end - secondSlash - 1;
+        // Month and day accept zero padding like the formatter did; nine digits keeps the value in int range.
+        if (monthDigits < 1 || monthDigits > 9 || dayDigits < 1 || dayDigits > 9
+                || (yearDigits != 2 && yearDigits != 4)) {
+            return INVALID;
+        }
+
+        int month = digits(text, start, firstSlash);
+        int day = digits(text, firstSlash + 1, secondSlash);
+        int year = digits(text, secondSlash + 1, end);
+        if (month < 1 || month > 12 || day < 1 || day > 31 || year < 0) {
+            return INVALID;
+        }
+        if (yearDigits == 2) {
+            year += 2000;
+        } else if (year == 0) {
+            return INVALID;
+        }
+        return epochDay(year, month, Math.min(day, lengthOfMonth(year, month)));
+    }
+
+    public static LocalDate toLocalDate(int epochDay) {
+        return epochDay == INVALID ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    // Days since 1970-01-01 for a proleptic Gregorian date (civil-to-days conversion).
+    static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Parse an unsigned run of ASCII digits, or return -1 if any other character is present.
+    private static int digits(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int indexOf(CharSequence text, char target, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,119 @@
+package com.mycompany.app;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary of exercise names.
+ *
+ * Names are normalized (trimmed, inner whitespace runs collapsed to one space) by a
+ * hand-written scanner that returns already-normal names without allocating, then interned
+ * to small dense ids. Workouts, logs, storage and indexes can compare and key on the id,
+ * and every workout with the same exercise shares one String instance.
+ *
+ * Ids are never reused or dropped, so they stay valid for the life of the process.
+ */
+public final class ExerciseDictionary {
+
+    /** Id reported by lookup() for a name that has never been interned. */
+    public static final int UNKNOWN = -1;
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[64];
+    private static int count;
+
+    private ExerciseDictionary() {
+    }
+
+    /**
+     * Returns the normalized form of a name: trimmed like String.trim(), with each run of
+     * inner whitespace (space, tab, CR, LF, vertical tab, form feed) replaced by one space.
+     * Null becomes "". A name that is already normal is returned as is.
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        int start = 0;
+        int end = name.length();
+        while (start < end && name.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && name.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        boolean clean = true;
+        for (int i = start; i < end && clean; i++) {
+            char c = name.charAt(i);
+            if (isWhitespace(c) && (c != ' ' || isWhitespace(name.charAt(i + 1)))) {
+                clean = false;
+            }
+        }
+        if (clean) {
+            return start == 0 && end == name.length() ? name : name.substring(start, end);
+        }
+
+        StringBuilder normalized = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (!isWhitespace(c)) {
+                normalized.append(c);
+            } else if (!isWhitespace(name.charAt(i - 1))) {
+                normalized.append(' ');
+            }
+        }
+        return normalized.toString();
+    }
+
+    // Id of the normalized name, interning it on first sight.
+    public static int idOf(String name) {
+        String normalized = normalize(name);
+        Integer id = IDS.get(normalized);
+        return id != null ? id : register(normalized);
+    }
+
+    // Id of the normalized name, or UNKNOWN without interning it.
+    public static int lookup(String name) {
+        Integer id = IDS.get(normalize(name));
+        return id == null ? UNKNOWN : id;
+    }
+
+    public static String nameOf(int id) {
+        String[] current = names;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            throw new IllegalArgumentException("Unknown exercise id " + id);
+        }
+        return current[id];
+    }
+
+    // The shared instance of the normalized name; use it for names held long term.
+    public static String intern(String name) {
+        return nameOf(idOf(name));
+    }
+
+    public static int size() {
+        return IDS.size();
+    }
+
+    // Same characters as the regex class \s.
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    // Publish the name before its id so any thread that sees the id can resolve it.
+    private static synchronized int register(String normalized) {
+        Integer existing = IDS.get(normalized);
+        if (existing != null) {
+            return existing;
+        }
+        String[] current = names;
+        if (count == current.length) {
+            current = Arrays.copyOf(current, count * 2);
+        }
+        current[count] = normalized;
+        names = current;
+        IDS.put(normalized, count);
+        return count++;
+    }
+}
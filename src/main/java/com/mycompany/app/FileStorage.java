@@ -1,24 +1,33 @@
 package com.mycompany.app;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.time.LocalDate;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * Handles workout persistence with CSV save/load, backup support, validation,
@@ -29,15 +38,106 @@ public class FileStorage {
     private static final String DEFAULT_FILENAME = "workouts.csv";
     private static final String DATA_DIRECTORY = "data";
     private static final String BACKUP_DIRECTORY = "data/backups";
-    private static final String DELIMITER = ",";
-    private static final String CSV_HEADER = "date,exercise,weight,reps,sets,note,completed";
-    private static final int MAX_BACKUPS = 5;
+    static final String CSV_HEADER = "date,exercise,weight,reps,sets,note,completed";
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final int LOAD_CACHE_ENTRIES = 16;
+    private static final long LOAD_CACHE_ROWS = 1_000_000;
+    private static final int APPEND_BUFFER_BYTES = 64 * 1024;
+    private static final DateTimeFormatter LOG_TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
 
     private String currentFilePath;
     private boolean autoBackupEnabled;
-    private int operationCount;
+    private StorageFormat storageFormat = StorageFormat.CSV;
+    private volatile Durability durability = Durability.NONE;
+    private volatile SaveStats lastSaveStats;
+    private final AtomicInteger operationCount = new AtomicInteger();
+    private volatile StorageMetrics metrics = StorageMetrics.NOOP;
+    private volatile boolean operationLoggingEnabled = true;
     private final ReentrantReadWriteLock fileLock = new ReentrantReadWriteLock();
+    private final ParsedFileCache<OperationResult<List<String>>> rowCache =
+            new ParsedFileCache<>(LOAD_CACHE_ENTRIES, LOAD_CACHE_ROWS);
+    private final ParsedFileCache<List<Workout>> workoutCache = new ParsedFileCache<>(LOAD_CACHE_ENTRIES, LOAD_CACHE_ROWS);
+    private volatile boolean loadCacheEnabled = true;
+    private volatile boolean checkpointEnabled;
+    private volatile int lastCheckpointRows;
+
+    /**
+     * On-disk encoding used by the typed save/load methods of a FileStorage instance.
+     */
+    public enum StorageFormat {
+        CSV,
+        BINARY
+    }
+
+    /**
+     * How hard a save works to survive a crash or power loss. Every save writes a temp
+     * file and atomically renames it over the target; the stronger settings also force
+     * the temp file (and then the directory holding the rename) to disk before returning.
+     */
+    public enum Durability {
+        NONE,
+        FSYNC_FILE,
+        FSYNC_FILE_AND_DIRECTORY
+    }
+
+    /**
+     * Timing and size of one save: bytes written, time in channel writes, time forcing
+     * the file and directory to disk (-1 when not done or not supported) and total time.
+     */
+    public static class SaveStats {
+        private final Durability durability;
+        private final long bytesWritten;
+        private final long writeNanos;
+        private final long fileSyncNanos;
+        private final long directorySyncNanos;
+        private final long totalNanos;
+
+        SaveStats(Durability durability, long bytesWritten, long writeNanos, long fileSyncNanos,
+                long directorySyncNanos, long totalNanos) {
+            this.durability = durability;
+            this.bytesWritten = bytesWritten;
+            this.writeNanos = writeNanos;
+            this.fileSyncNanos = fileSyncNanos;
+            this.directorySyncNanos = directorySyncNanos;
+            this.totalNanos = totalNanos;
+        }
+
+        public Durability getDurability() {
+            return durability;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public long getWriteNanos() {
+            return writeNanos;
+        }
+
+        public long getFileSyncNanos() {
+            return fileSyncNanos;
+        }
+
+        public long getDirectorySyncNanos() {
+            return directorySyncNanos;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        // Throughput of the whole save, including any syncs.
+        public double getBytesPerSecond() {
+            return totalNanos == 0 ? 0 : bytesWritten * 1_000_000_000.0 / totalNanos;
+        }
+
+        @Override
+        public String toString() {
+            return bytesWritten + " bytes in " + totalNanos / 1000 + " us (write " + writeNanos / 1000
+                    + " us, file sync " + fileSyncNanos / 1000 + " us, directory sync "
+                    + directorySyncNanos / 1000 + " us, " + durability + ")";
+        }
+    }
 
     public static class OperationResult<T> {
         private final T data;
@@ -82,14 +182,12 @@ public class FileStorage {
     public FileStorage() {
         this.currentFilePath = DATA_DIRECTORY + File.separator + DEFAULT_FILENAME;
         this.autoBackupEnabled = true;
-        this.operationCount = 0;
         initializeDirectories();
     }
 
     public FileStorage(String customFilePath) {
         this.currentFilePath = customFilePath;
         this.autoBackupEnabled = true;
-        this.operationCount = 0;
         initializeDirectories();
     }
 
@@ -98,99 +196,594 @@ public class FileStorage {
     }
 
     public boolean saveWorkoutObjects(List<Workout> workouts, String filePath) throws FileStorageException {
+        return !saveWorkoutObjectsWithResult(workouts, filePath).hasErrors();
+    }
+
+    public OperationResult<Void> saveWorkoutObjectsWithResult(List<Workout> workouts, String filePath)
+            throws FileStorageException {
         if (workouts == null) {
             throw new FileStorageException("Cannot save null workout list");
         }
+        if (storageFormat == StorageFormat.BINARY) {
+            return saveBinaryWithResult(workouts, filePath);
+        }
+        return saveCsvWorkouts(workouts, filePath);
+    }
 
-        List<String> lines = new ArrayList<>();
+    // Encode workouts straight into the CSV writer; null entries are ignored, invalid ones reported.
+    private OperationResult<Void> saveCsvWorkouts(List<Workout> workouts, String filePath) throws FileStorageException {
+        int processedCount = 0;
         for (Workout workout : workouts) {
             if (workout != null) {
-                lines.add(workout.toCsvLine());
+                processedCount++;
             }
         }
 
-        return saveWorkouts(lines, filePath);
+        return writeCsv(filePath, processedCount, (encoder, writer, errors, rollups) -> {
+            int index = 0;
+            for (Workout workout : workouts) {
+                if (workout == null) {
+                    continue;
+                }
+                if (encodeForStorage(workout, encoder.reset())) {
+                    encoder.writeTo(writer);
+                    writer.newLine();
+                    addToRollups(rollups, workout);
+                } else {
+                    errors.add("Skipped invalid entry at index " + index + ": " + workout.toCsvLine());
+                }
+                index++;
+            }
+        }, workouts);
     }
 
     public List<Workout> loadWorkoutObjects() throws FileStorageException {
         return loadWorkoutObjects(currentFilePath);
     }
 
+    /**
+     * Loads every valid workout in the file. Repeated loads of an unchanged file are served
+     * from the parsed-file cache; callers always get their own Workout instances, since
+     * workouts are mutable and loaded ones are routinely edited.
+     */
     public List<Workout> loadWorkoutObjects(String filePath) throws FileStorageException {
-        OperationResult<List<String>> result = loadWorkoutsWithResult(filePath);
-        List<Workout> workouts = new ArrayList<>();
-
-        for (String line : result.getData()) {
-            workouts.add(Workout.fromCsvLine(line));
+        ParsedFileCache.FileIdentity identity = loadCacheEnabled ? ParsedFileCache.FileIdentity.of(filePath) : null;
+        List<Workout> cached = identity == null ? null : workoutCache.get(filePath, identity);
+        if (cached != null) {
+            LoadStart start = new LoadStart();
+            List<Workout> copies = copyWorkouts(cached);
+            completeLoad(start.event, start.startNanos, filePath, copies.size(), 0, 0,
+                    "Loaded " + copies.size() + " workouts from the cache of " + filePath);
+            return copies;
         }
 
+        List<Workout> workouts;
+        if (storageFormat == StorageFormat.BINARY) {
+            workouts = loadBinaryWithResult(filePath).getData();
+        } else if (checkpointEnabled) {
+            workouts = loadFromCheckpoint(filePath);
+        } else {
+            workouts = new ArrayList<>();
+            streamWorkoutObjects(filePath, workouts::add);
+        }
+        if (identity != null) {
+            workoutCache.put(filePath, identity, Collections.unmodifiableList(copyWorkouts(workouts)), workouts.size());
+        }
         return workouts;
     }
 
-    public boolean saveWorkouts(List<String> workoutData) throws FileStorageException {
-        return saveWorkouts(workoutData, currentFilePath);
+    /**
+     * Streams every valid workout in the file to the consumer without buffering the file.
+     * Each row is tokenized once, validated and turned into a Workout in the same pass.
+     */
+    public OperationResult<Void> streamWorkoutObjects(String filePath, Consumer<? super Workout> consumer)
+            throws FileStorageException {
+        if (consumer == null) {
+            throw new FileStorageException("Cannot stream workouts to a null consumer");
+        }
+        if (storageFormat == StorageFormat.BINARY) {
+            OperationResult<List<Workout>> loaded = loadBinaryWithResult(filePath);
+            loaded.getData().forEach(consumer);
+            return new OperationResult<>(null, loaded.getProcessedCount(), loaded.getSuccessCount(),
+                    loaded.getSkippedCount(), loaded.getErrors());
+        }
+
+        return scanCsvWorkouts(filePath, null, consumer);
     }
 
-    public boolean saveWorkouts(List<String> workoutData, String filePath) throws FileStorageException {
-        OperationResult<Void> result = saveWorkoutsWithResult(workoutData, filePath);
-        return !result.hasErrors();
+    public List<Workout> query(WorkoutQuery query) throws FileStorageException {
+        return query(currentFilePath, query).getData();
     }
 
-    public OperationResult<Void> saveWorkoutsWithResult(List<String> workoutData, String filePath)
-            throws FileStorageException {
-        if (workoutData == null) {
-            throw new FileStorageException("Cannot save null workout data");
+    /**
+     * Workouts in the file that match the query, in file order. CSV files are filtered while
+     * they are scanned: rows outside the date range or of another exercise are dropped before
+     * the rest of the row is parsed (and so are not validated), and reading stops at the
+     * limit. Binary files are decoded whole and then filtered.
+     */
+    public OperationResult<List<Workout>> query(String filePath, WorkoutQuery query) throws FileStorageException {
+        if (query == null) {
+            throw new FileStorageException("Cannot run a null query");
+        }
+        List<Workout> matches = new ArrayList<>();
+        if (storageFormat == StorageFormat.BINARY) {
+            OperationResult<List<Workout>> loaded = loadBinaryWithResult(filePath);
+            for (Workout workout : loaded.getData()) {
+                if (matches.size() == query.getLimit()) {
+                    break;
+                }
+                if (query.matches(workout)) {
+                    matches.add(workout);
+                }
+            }
+            return new OperationResult<>(matches, loaded.getProcessedCount(), matches.size(),
+                    loaded.getSkippedCount(), loaded.getErrors());
         }
 
-        fileLock.writeLock().lock();
+        OperationResult<Void> scanned = scanCsvWorkouts(filePath, query, matches::add);
+        return new OperationResult<>(matches, scanned.getProcessedCount(), scanned.getSuccessCount(),
+                scanned.getSkippedCount(), scanned.getErrors());
+    }
+
+    // Stream valid rows to the consumer, or only the rows matching the query when one is given.
+    private OperationResult<Void> scanCsvWorkouts(String filePath, WorkoutQuery query,
+            Consumer<? super Workout> consumer) throws FileStorageException {
+        return scanCsvWorkouts(filePath, 0, query, consumer, new LoadStart());
+    }
+
+    /**
+     * Scan from a byte offset that starts a line; offset 0 scans the whole file, header
+     * included. The scan completes the load begun at start, adding the rows and bytes it
+     * read to whatever start already counted.
+     */
+    private OperationResult<Void> scanCsvWorkouts(String filePath, long offset, WorkoutQuery query,
+            Consumer<? super Workout> consumer, LoadStart start) throws FileStorageException {
+        lockForRead();
         try {
-            int processedCount = workoutData.size();
+            List<String> errors = new ArrayList<>();
+            int processedCount = 0;
             int successCount = 0;
             int skippedCount = 0;
-            List<String> errors = new ArrayList<>();
 
-            if (autoBackupEnabled && fileExists(filePath)) {
-                createBackup(filePath);
+            if (!fileExists(filePath)) {
+                return new OperationResult<>(null, 0, 0, 0, errors);
             }
 
-            String tempFilePath = filePath + ".tmp";
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(tempFilePath))) {
-                writer.write(CSV_HEADER);
-                writer.newLine();
+            try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+                    Reader reader = Channels.newReader(channel.position(offset), StandardCharsets.UTF_8)) {
+                CsvTokenizer tokens = new CsvTokenizer();
+                int lineNumber = 0;
+                int limit = query == null ? Integer.MAX_VALUE : query.getLimit();
 
-                for (int i = 0; i < workoutData.size(); i++) {
-                    String line = workoutData.get(i);
-                    if (!isValidWorkoutEntry(line)) {
-                        skippedCount++;
-                        errors.add("Skipped invalid entry at index " + i + ": " + line);
+                while (successCount < limit && tokens.readLine(reader)) {
+                    lineNumber++;
+                    if (lineNumber == 1 && offset == 0 && tokens.lineEquals(CSV_HEADER)) {
+                        continue;
+                    }
+                    if (tokens.isBlankLine()) {
                         continue;
                     }
 
-                    List<String> fields = parseCsvLine(line);
-                    fields.set(1, normalizeExerciseName(fields.get(1)));
-                    writer.write(toCsvLine(fields));
-                    writer.newLine();
-                    successCount++;
+                    processedCount++;
+                    if (query != null && isFilteredOut(tokens, query)) {
+                        continue;
+                    }
+                    Workout workout = toWorkout(tokens);
+                    if (workout == null) {
+                        skippedCount++;
+                        errors.add("Invalid entry at line " + lineNumber + ": " + tokens.line());
+                    } else if (query == null || query.matchesRest(tokens)) {
+                        consumer.accept(workout);
+                        successCount++;
+                    }
                 }
 
-                writer.flush();
+                // The position counts what the decoder read ahead too, which is what came off the disk.
+                long bytes = start.bytes + channel.position() - offset;
+                int rows = start.rows + successCount;
+                completeLoad(start.event, start.startNanos, filePath, rows, skippedCount, bytes, query != null
+                        ? "Queried " + successCount + " workouts from " + filePath + " (scanned " + processedCount
+                                + ", skipped " + skippedCount + ")"
+                        : start.rows > 0
+                        ? "Loaded " + rows + " workouts from the checkpoint of " + filePath + " and its "
+                                + successCount + " appended rows (skipped " + skippedCount + ")"
+                        : "Streamed " + successCount + " workouts from " + filePath + " (skipped " + skippedCount + ")");
+            } catch (NoSuchFileException e) {
+                return new OperationResult<>(null, 0, 0, 0, errors);
             } catch (IOException e) {
-                deleteFile(tempFilePath);
-                throw new FileStorageException("Failed to write workout data: " + e.getMessage(), e);
+                throw new FileStorageException("Failed to read workout data: " + e.getMessage(), e);
+            }
+
+            return new OperationResult<>(null, processedCount, successCount, skippedCount, errors);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    public OperationResult<List<Workout>> loadWorkoutObjectsParallel(String filePath) throws FileStorageException {
+        return loadWorkoutObjectsParallel(filePath, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Memory-maps the file and parses newline-aligned chunks on the given fork/join pool.
+     * Results, counts and line-numbered errors match the sequential loader.
+     */
+    public OperationResult<List<Workout>> loadWorkoutObjectsParallel(String filePath, ForkJoinPool pool)
+            throws FileStorageException {
+        lockForRead();
+        try {
+            if (!fileExists(filePath)) {
+                return new OperationResult<>(new ArrayList<>(), 0, 0, 0, new ArrayList<>());
             }
 
+            StorageEvents.Load event = new StorageEvents.Load();
+            event.begin();
+            long startNanos = System.nanoTime();
             try {
-                Path source = Paths.get(tempFilePath);
-                Path target = Paths.get(filePath);
-                Files.deleteIfExists(target);
-                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                OperationResult<List<Workout>> result = new ParallelCsvLoader(this, pool).load(Paths.get(filePath));
+                completeLoad(event, startNanos, filePath, result.getSuccessCount(), result.getSkippedCount(),
+                        fileSize(filePath), "Loaded " + result.getSuccessCount() + " workouts in parallel from " + filePath
+                                + " (skipped " + result.getSkippedCount() + ")");
+                return result;
+            } catch (IOException e) {
+                throw new FileStorageException("Failed to read workout data: " + e.getMessage(), e);
+            }
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    public OperationResult<Void> appendWorkoutObjects(List<Workout> workouts) throws FileStorageException {
+        return appendWorkoutObjectsWithResult(workouts, currentFilePath);
+    }
+
+    /**
+     * Appends workouts to the end of a CSV file instead of rewriting it, under the save
+     * validation rules and durability setting; a missing file is created with its header.
+     * A checkpoint stays valid across appends, and later loads parse only the appended rows.
+     * Rollups that were current for the file take the appended rows and are restamped; stale
+     * ones, like the note index, are rebuilt on their next use. Appends take no backup.
+     */
+    public OperationResult<Void> appendWorkoutObjectsWithResult(List<Workout> workouts, String filePath)
+            throws FileStorageException {
+        if (workouts == null) {
+            throw new FileStorageException("Cannot append null workout list");
+        }
+        if (storageFormat == StorageFormat.BINARY) {
+            throw new FileStorageException("Appending requires CSV storage");
+        }
 
-                operationCount++;
-                logOperation("Saved " + successCount + " workouts to " + filePath + " (skipped " + skippedCount + ")");
+        lockForWrite();
+        try {
+            StorageEvents.Save event = new StorageEvents.Save();
+            event.begin();
+            long startNanos = System.nanoTime();
+            Durability policy = durability;
+            Path target = Paths.get(filePath).toAbsolutePath();
+            List<String> errors = new ArrayList<>();
+            int processedCount = 0;
+            boolean created = !Files.exists(target);
+            long bytes;
+            long writeNanos;
+            long fileSyncNanos = -1;
+            WorkoutRollups rollups;
+            try (ChannelFileWriter writer = ChannelFileWriter.appending(target, APPEND_BUFFER_BYTES)) {
+                if (created || Files.size(target) == 0) {
+                    rollups = new WorkoutRollups();
+                    writer.write(CSV_HEADER);
+                    writer.newLine();
+                } else {
+                    rollups = storedRollups(filePath, target); // null when already stale
+                    if (!endsWithNewline(target)) {
+                        writer.newLine(); // Keep the first row off a last line written without a terminator
+                    }
+                }
+                CsvEncoder encoder = new CsvEncoder();
+                for (Workout workout : workouts) {
+                    if (workout == null) {
+                        continue;
+                    }
+                    if (encodeForStorage(workout, encoder.reset())) {
+                        encoder.writeTo(writer);
+                        writer.newLine();
+                        if (rollups != null) {
+                            addToRollups(rollups, workout);
+                        }
+                    } else {
+                        errors.add("Skipped invalid entry at index " + processedCount + ": " + workout.toCsvLine());
+                    }
+                    processedCount++;
+                }
+                writer.flush();
+                if (policy != Durability.NONE) {
+                    fileSyncNanos = writer.sync();
+                }
+                bytes = writer.getBytesWritten();
+                writeNanos = writer.getWriteNanos();
             } catch (IOException e) {
-                throw new FileStorageException("Failed to finalize save operation: " + e.getMessage(), e);
+                throw new FileStorageException("Failed to append workout data: " + e.getMessage(), e);
+            } finally {
+                invalidateLoadCache(filePath);
+            }
+            if (rollups != null) {
+                writeRollups(filePath, rollups);
             }
 
+            // Only a newly created file adds a directory entry that needs syncing.
+            long directorySyncNanos = -1;
+            if (created && policy == Durability.FSYNC_FILE_AND_DIRECTORY && target.getParent() != null) {
+                directorySyncNanos = ChannelFileWriter.syncDirectory(target.getParent());
+            }
+            SaveStats stats = new SaveStats(policy, bytes, writeNanos, fileSyncNanos, directorySyncNanos,
+                    System.nanoTime() - startNanos);
+            lastSaveStats = stats;
+
+            int skippedCount = errors.size();
+            int successCount = processedCount - skippedCount;
+            completeSave(event, stats, filePath, successCount, skippedCount,
+                    "Appended " + successCount + " workouts to " + filePath + " (skipped " + skippedCount + ")");
+            return new OperationResult<>(null, processedCount, successCount, skippedCount, errors);
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    private static boolean endsWithNewline(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            return channel.size() == 0 || (channel.read(last, channel.size() - 1) == 1 && last.get(0) == '\n');
+        }
+    }
+
+    /**
+     * Saves workouts in the versioned binary format, applying the same validation and
+     * exercise-name normalization as the CSV save.
+     */
+    public OperationResult<Void> saveBinaryWithResult(List<Workout> workouts, String filePath)
+            throws FileStorageException {
+        if (workouts == null) {
+            throw new FileStorageException("Cannot save null workout list");
+        }
+
+        lockForWrite();
+        try {
+            StorageEvents.Save event = new StorageEvents.Save();
+            event.begin();
+            long startNanos = System.nanoTime();
+            List<Workout> valid = new ArrayList<>(workouts.size());
+            List<String> errors = new ArrayList<>();
+            for (int i = 0; i < workouts.size(); i++) {
+                Workout workout = sanitizeForStorage(workouts.get(i));
+                if (workout == null) {
+                    errors.add("Skipped invalid entry at index " + i + ": " + workouts.get(i));
+                } else {
+                    valid.add(workout);
+                }
+            }
+
+            if (autoBackupEnabled && fileExists(filePath)) {
+                createBackup(filePath);
+            }
+
+            SaveStats stats = writeDurably(filePath, startNanos,
+                    writer -> BinaryWorkoutCodec.write(valid, writer.asOutputStream()));
+            WorkoutRollups rollups = new WorkoutRollups();
+            valid.forEach(rollups::add);
+            writeRollups(filePath, rollups);
+
+            completeSave(event, stats, filePath, valid.size(), errors.size(),
+                    "Saved " + valid.size() + " workouts (binary) to " + filePath + " (skipped " + errors.size() + ")");
+            return new OperationResult<>(null, workouts.size(), valid.size(), errors.size(), errors);
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    public OperationResult<List<Workout>> loadBinaryWithResult(String filePath) throws FileStorageException {
+        lockForRead();
+        try {
+            if (!fileExists(filePath)) {
+                return new OperationResult<>(new ArrayList<>(), 0, 0, 0, new ArrayList<>());
+            }
+
+            StorageEvents.Load event = new StorageEvents.Load();
+            event.begin();
+            long startNanos = System.nanoTime();
+            try {
+                byte[] bytes = Files.readAllBytes(Paths.get(filePath));
+                List<Workout> workouts = BinaryWorkoutCodec.read(ByteBuffer.wrap(bytes));
+                completeLoad(event, startNanos, filePath, workouts.size(), 0, bytes.length,
+                        "Loaded " + workouts.size() + " workouts (binary) from " + filePath);
+                return new OperationResult<>(workouts, workouts.size(), workouts.size(), 0, new ArrayList<>());
+            } catch (IOException e) {
+                throw new FileStorageException("Failed to read workout data: " + e.getMessage(), e);
+            }
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    // Convert a CSV workout file to the binary format; invalid CSV rows are reported and dropped.
+    public OperationResult<Void> convertCsvToBinary(String csvPath, String binaryPath) throws FileStorageException {
+        List<Workout> workouts = new ArrayList<>();
+        OperationResult<Void> loaded = scanCsvWorkouts(csvPath, null, workouts::add);
+        OperationResult<Void> saved = saveBinaryWithResult(workouts, binaryPath);
+        return new OperationResult<>(null, loaded.getProcessedCount(), saved.getSuccessCount(),
+                loaded.getSkippedCount() + saved.getSkippedCount(), concat(loaded.getErrors(), saved.getErrors()));
+    }
+
+    // Convert a binary workout file back to the CSV_HEADER layout.
+    public OperationResult<Void> convertBinaryToCsv(String binaryPath, String csvPath) throws FileStorageException {
+        return saveCsvWorkouts(loadBinaryWithResult(binaryPath).getData(), csvPath);
+    }
+
+    /**
+     * Decodes the checkpoint left by the last save and parses only the CSV rows appended
+     * after it, falling back to a full scan when the checkpoint is missing or no longer
+     * matches the file. Either way it is recorded as one load, whose bytes are the
+     * checkpoint, the CSV prefix read to verify it and the tail.
+     */
+    private List<Workout> loadFromCheckpoint(String filePath) throws FileStorageException {
+        lockForRead();
+        try {
+            LoadStart start = new LoadStart();
+            Path checkpointPath = WorkoutCheckpoint.pathFor(filePath);
+            WorkoutCheckpoint checkpoint = WorkoutCheckpoint.read(checkpointPath, Paths.get(filePath));
+            if (checkpoint == null) {
+                lastCheckpointRows = 0;
+                List<Workout> workouts = new ArrayList<>();
+                scanCsvWorkouts(filePath, 0, null, workouts::add, start);
+                return workouts;
+            }
+
+            List<Workout> workouts = checkpoint.getWorkouts();
+            lastCheckpointRows = workouts.size();
+            start.rows = workouts.size();
+            start.bytes = fileSize(checkpointPath.toString()) + checkpoint.getCsvLength();
+            if (fileSize(filePath) > checkpoint.getCsvLength()) {
+                scanCsvWorkouts(filePath, checkpoint.getCsvLength(), null, workouts::add, start);
+            } else {
+                completeLoad(start.event, start.startNanos, filePath, workouts.size(), 0, start.bytes,
+                        "Loaded " + workouts.size() + " workouts from the checkpoint of " + filePath);
+            }
+            return workouts;
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    public boolean saveWorkouts(List<String> workoutData) throws FileStorageException {
+        return saveWorkouts(workoutData, currentFilePath);
+    }
+
+    public boolean saveWorkouts(List<String> workoutData, String filePath) throws FileStorageException {
+        OperationResult<Void> result = saveWorkoutsWithResult(workoutData, filePath);
+        return !result.hasErrors();
+    }
+
+    public OperationResult<Void> saveWorkoutsWithResult(List<String> workoutData, String filePath)
+            throws FileStorageException {
+        if (workoutData == null) {
+            throw new FileStorageException("Cannot save null workout data");
+        }
+
+        CsvTokenizer tokens = new CsvTokenizer();
+        return writeCsv(filePath, workoutData.size(), (encoder, writer, errors, rollups) -> {
+            for (int i = 0; i < workoutData.size(); i++) {
+                String line = workoutData.get(i);
+                if (line == null || !isValidRow(tokens.tokenize(line))) {
+                    errors.add("Skipped invalid entry at index " + i + ": " + line);
+                    continue;
+                }
+
+                encoder.reset();
+                for (int field = 0; field < tokens.fieldCount(); field++) {
+                    if (field == 1) {
+                        encoder.field(ExerciseDictionary.normalize(tokens.pooled(1)));
+                    } else {
+                        encoder.field(tokens, field);
+                    }
+                }
+                encoder.writeTo(writer);
+                writer.newLine();
+                rollups.add(DateCodec.toEpochDay(tokens.pooled(0)), ExerciseDictionary.intern(tokens.pooled(1)),
+                        tokens.doubleField(2), tokens.intField(3), tokens.intField(4),
+                        tokens.fieldEqualsIgnoreCase(6, "true"));
+            }
+        });
+    }
+
+    // Writes one CSV row per valid entry, folding it into the rollups; each error counts as one skipped entry.
+    private interface CsvRows {
+        void write(CsvEncoder encoder, ChannelFileWriter writer, List<String> errors, WorkoutRollups rollups)
+                throws IOException;
+    }
+
+    // Fills the temp file of a save.
+    private interface FileContent {
+        void write(ChannelFileWriter writer) throws IOException;
+    }
+
+    /**
+     * Write a temp file beside the target through a FileChannel, force it to disk when the
+     * durability setting asks, atomically rename it over the target, then force the
+     * directory entry if asked. Records and returns the save's statistics.
+     */
+    private SaveStats writeDurably(String filePath, long startNanos, FileContent content) throws FileStorageException {
+        Durability policy = durability;
+        Path target = Paths.get(filePath).toAbsolutePath();
+        Path temp = Paths.get(filePath + ".tmp").toAbsolutePath();
+        long bytes;
+        long writeNanos;
+        long fileSyncNanos = -1;
+        try (ChannelFileWriter writer = new ChannelFileWriter(temp)) {
+            content.write(writer);
+            writer.flush();
+            if (policy != Durability.NONE) {
+                fileSyncNanos = writer.sync();
+            }
+            bytes = writer.getBytesWritten();
+            writeNanos = writer.getWriteNanos();
+        } catch (IOException e) {
+            deleteFile(temp.toString());
+            throw new FileStorageException("Failed to write workout data: " + e.getMessage(), e);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to finalize save operation: " + e.getMessage(), e);
+        } finally {
+            invalidateLoadCache(filePath);
+        }
+
+        long directorySyncNanos = -1;
+        if (policy == Durability.FSYNC_FILE_AND_DIRECTORY && target.getParent() != null) {
+            directorySyncNanos = ChannelFileWriter.syncDirectory(target.getParent());
+            if (directorySyncNanos < 0) {
+                System.err.println("[FileStorage] Directory sync is not supported here: " + target.getParent());
+            }
+        }
+
+        SaveStats stats = new SaveStats(policy, bytes, writeNanos, fileSyncNanos, directorySyncNanos,
+                System.nanoTime() - startNanos);
+        lastSaveStats = stats;
+        return stats;
+    }
+
+    // Shared CSV save: backup, write header and rows to a temp file, then move it into place.
+    private OperationResult<Void> writeCsv(String filePath, int processedCount, CsvRows rows)
+            throws FileStorageException {
+        return writeCsv(filePath, processedCount, rows, null);
+    }
+
+    // checkpointSource holds the workouts the rows were written from, or null when there are none.
+    private OperationResult<Void> writeCsv(String filePath, int processedCount, CsvRows rows,
+            List<Workout> checkpointSource) throws FileStorageException {
+        lockForWrite();
+        try {
+            StorageEvents.Save event = new StorageEvents.Save();
+            event.begin();
+            long startNanos = System.nanoTime();
+            List<String> errors = new ArrayList<>();
+
+            if (autoBackupEnabled && fileExists(filePath)) {
+                createBackup(filePath);
+            }
+
+            WorkoutRollups rollups = new WorkoutRollups();
+            SaveStats stats = writeDurably(filePath, startNanos, writer -> {
+                writer.write(CSV_HEADER);
+                writer.newLine();
+                rows.write(new CsvEncoder(), writer, errors, rollups);
+            });
+            writeRollups(filePath, rollups);
+            writeCheckpoint(filePath, checkpointSource);
+
+            int skippedCount = errors.size();
+            int successCount = processedCount - skippedCount;
+            completeSave(event, stats, filePath, successCount, skippedCount,
+                    "Saved " + successCount + " workouts to " + filePath + " (skipped " + skippedCount + ")");
             return new OperationResult<>(null, processedCount, successCount, skippedCount, errors);
         } finally {
             fileLock.writeLock().unlock();
@@ -205,9 +798,27 @@ public class FileStorage {
         return loadWorkoutsWithResult(filePath).getData();
     }
 
+    /**
+     * Loads and validates the raw CSV rows. Results for an unchanged file come from the
+     * parsed-file cache and are shared between callers, so the returned list is read-only.
+     */
     public OperationResult<List<String>> loadWorkoutsWithResult(String filePath) throws FileStorageException {
-        fileLock.readLock().lock();
+        lockForRead();
         try {
+            ParsedFileCache.FileIdentity identity =
+                    loadCacheEnabled ? ParsedFileCache.FileIdentity.of(filePath) : null;
+            OperationResult<List<String>> cached = identity == null ? null : rowCache.get(filePath, identity);
+            if (cached != null) {
+                LoadStart start = new LoadStart();
+                completeLoad(start.event, start.startNanos, filePath, cached.getSuccessCount(),
+                        cached.getSkippedCount(), 0, "Loaded " + cached.getSuccessCount() + " rows from the cache of "
+                                + filePath);
+                return cached;
+            }
+
+            StorageEvents.Load event = new StorageEvents.Load();
+            event.begin();
+            long startNanos = System.nanoTime();
             List<String> workouts = new ArrayList<>();
             List<String> errors = new ArrayList<>();
             int processedCount = 0;
@@ -217,90 +828,240 @@ public class FileStorage {
                 return new OperationResult<>(workouts, 0, 0, 0, errors);
             }
 
-            try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-                String line;
+            try (Reader reader = new FileReader(filePath, StandardCharsets.UTF_8)) {
+                CsvTokenizer tokens = new CsvTokenizer();
+                CsvEncoder encoder = new CsvEncoder();
                 int lineNumber = 0;
 
-                while ((line = reader.readLine()) != null) {
+                while (tokens.readLine(reader)) {
                     lineNumber++;
-                    if (lineNumber == 1 && line.equals(CSV_HEADER)) {
+                    if (lineNumber == 1 && tokens.lineEquals(CSV_HEADER)) {
                         continue;
                     }
-                    if (line.trim().isEmpty()) {
+                    if (tokens.isBlankLine()) {
                         continue;
                     }
 
                     processedCount++;
-                    if (isValidWorkoutEntry(line)) {
-                        workouts.add(toCsvLine(parseCsvLine(line)));
+                    if (isValidRow(tokens)) {
+                        encoder.reset();
+                        for (int field = 0; field < tokens.fieldCount(); field++) {
+                            encoder.field(tokens, field);
+                        }
+                        workouts.add(encoder.toString());
                     } else {
                         skippedCount++;
-                        errors.add("Invalid entry at line " + lineNumber + ": " + line);
+                        errors.add("Invalid entry at line " + lineNumber + ": " + tokens.line());
                     }
                 }
 
-                operationCount++;
-                logOperation("Loaded " + workouts.size() + " workouts from " + filePath + " (skipped " + skippedCount + ")");
+                completeLoad(event, startNanos, filePath, workouts.size(), skippedCount, fileSize(filePath),
+                        "Loaded " + workouts.size() + " workouts from " + filePath + " (skipped " + skippedCount + ")");
             } catch (FileNotFoundException e) {
                 return new OperationResult<>(workouts, 0, 0, 0, errors);
             } catch (IOException e) {
                 throw new FileStorageException("Failed to read workout data: " + e.getMessage(), e);
             }
 
-            return new OperationResult<>(workouts, processedCount, workouts.size(), skippedCount, errors);
+            OperationResult<List<String>> result = new OperationResult<>(Collections.unmodifiableList(workouts),
+                    processedCount, workouts.size(), skippedCount, errors);
+            if (identity != null) {
+                rowCache.put(filePath, identity, result, workouts.size());
+            }
+            return result;
         } finally {
             fileLock.readLock().unlock();
         }
     }
 
-    public boolean createBackup(String filePath) {
-        if (!fileExists(filePath)) {
-            return false;
+    public WorkoutRollups loadRollups() throws FileStorageException {
+        return loadRollups(currentFilePath);
+    }
+
+    /**
+     * Weekly and monthly summaries of the file. Saves keep them current in a file beside
+     * the data; when that file is missing or was written for other contents (an edit made
+     * outside this storage), the data is scanned once and the rollups rewritten.
+     */
+    public WorkoutRollups loadRollups(String filePath) throws FileStorageException {
+        lockForRead();
+        try {
+            Path data = Paths.get(filePath);
+            if (!Files.exists(data)) {
+                return new WorkoutRollups();
+            }
+            try {
+                WorkoutRollups stored = storedRollups(filePath, data);
+                if (stored != null) {
+                    return stored;
+                }
+            } catch (IOException e) {
+                throw new FileStorageException("Failed to read workout data: " + e.getMessage(), e);
+            }
+
+            WorkoutRollups rebuilt = new WorkoutRollups();
+            streamWorkoutObjects(filePath, rebuilt::add);
+            writeRollups(filePath, rebuilt);
+            return rebuilt;
+        } finally {
+            fileLock.readLock().unlock();
         }
+    }
+
+    // The rollups stored beside the file, or null when missing or written for other contents.
+    private static WorkoutRollups storedRollups(String filePath, Path data) throws IOException {
+        return WorkoutRollups.read(WorkoutRollups.pathFor(filePath), Files.size(data),
+                Files.getLastModifiedTime(data).toMillis());
+    }
+
+    // Fold a workout that encodeForStorage accepted into rollups, as it will read back.
+    private static void addToRollups(WorkoutRollups rollups, Workout workout) {
+        rollups.add(DateCodec.toEpochDay(cleanText(workout.getDate())), ExerciseDictionary.intern(workout.getExercise()),
+                workout.getWeight(), workout.getReps(), workout.getSets(), workout.isCompleted());
+    }
 
+    // Rollups are derived data: a failure to write them is reported but never fails the save.
+    private void writeRollups(String filePath, WorkoutRollups rollups) {
+        Path data = Paths.get(filePath);
+        Path target = WorkoutRollups.pathFor(filePath);
         try {
-            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-            String originalName = Paths.get(filePath).getFileName().toString();
-            String backupName = originalName.replace(".csv", "_backup_" + timestamp + ".csv");
-            String backupPath = BACKUP_DIRECTORY + File.separator + backupName;
-            Files.copy(Paths.get(filePath), Paths.get(backupPath), StandardCopyOption.REPLACE_EXISTING);
-            rotateBackups();
-            return true;
+            rollups.write(target, Files.size(data), Files.getLastModifiedTime(data).toMillis());
         } catch (IOException e) {
-            System.err.println("[FileStorage] Backup failed: " + e.getMessage());
-            return false;
+            System.err.println("[FileStorage] Could not write rollups for " + filePath + ": " + e.getMessage());
+            deleteFile(target.toString());
         }
     }
 
-    public boolean isValidWorkoutEntry(String entry) {
-        if (entry == null || entry.trim().isEmpty()) {
-            return false;
+    /**
+     * Checkpoint the workouts just saved to filePath, in the form a load would return them.
+     * Saves that have no workouts to checkpoint remove the old checkpoint instead, so it can
+     * never describe a file written since.
+     */
+    private void writeCheckpoint(String filePath, List<Workout> source) {
+        Path target = WorkoutCheckpoint.pathFor(filePath);
+        try {
+            if (!checkpointEnabled || source == null) {
+                Files.deleteIfExists(target);
+                return;
+            }
+            List<Workout> saved = new ArrayList<>(source.size());
+            for (Workout workout : source) {
+                Workout clean = sanitizeForStorage(workout);
+                if (clean != null) {
+                    saved.add(clean);
+                }
+            }
+            WorkoutCheckpoint.write(target, Paths.get(filePath), saved);
+        } catch (IOException e) {
+            System.err.println("[FileStorage] Could not write checkpoint for " + filePath + ": " + e.getMessage());
+            deleteFile(target.toString());
         }
+    }
 
-        List<String> parts = parseCsvLine(entry);
-        if (parts.size() < 7) {
+    /**
+     * Back up the file's current contents. Only a snapshot (a hard link) is taken here;
+     * compression, deduplication and rotation run on the backup thread. Returns false when
+     * there is nothing to back up or the snapshot fails.
+     */
+    public boolean createBackup(String filePath) {
+        Runnable queue = prepareBackup(filePath);
+        if (queue == null) {
             return false;
         }
+        queue.run();
+        return true;
+    }
 
-        String date = parts.get(0).trim();
-        String exercise = normalizeExerciseName(parts.get(1));
-        if (date.isEmpty() || !isValidDate(date) || exercise.isEmpty()) {
-            return false;
+    /**
+     * Take the snapshot for a backup of the file and return the step that queues it on the
+     * backup thread, or null when there is nothing to back up or the snapshot fails. The
+     * snapshot holds the current contents however long queuing waits.
+     */
+    private Runnable prepareBackup(String filePath) {
+        if (!fileExists(filePath)) {
+            return null;
         }
 
+        StorageEvents.Backup event = new StorageEvents.Backup();
+        event.begin();
+        long startNanos = System.nanoTime();
+        Path source = Paths.get(filePath);
         try {
-            double weight = Double.parseDouble(parts.get(2).trim());
-            int reps = Integer.parseInt(parts.get(3).trim());
-            int sets = Integer.parseInt(parts.get(4).trim());
-            if (weight < 0 || reps < 0 || sets < 0) {
-                return false;
+            BackupStore store = backupStore();
+            Path snapshot = store.snapshot(source);
+            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+            return () -> store.backupAsync(snapshot, source, timestamp).whenComplete((version, error) -> {
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    System.err.println("[FileStorage] Backup failed: " + cause.getMessage());
+                    completeBackup(event, startNanos, filePath, 0, false);
+                } else {
+                    completeBackup(event, startNanos, filePath, version.getStoredBytes(), true);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("[FileStorage] Backup failed: " + e.getMessage());
+            completeBackup(event, startNanos, filePath, 0, false);
+            return null;
+        }
+    }
+
+    // Retained backups of the file, oldest first.
+    public List<BackupStore.BackupVersion> listBackups(String filePath) {
+        return backupStore().listVersions(Paths.get(filePath));
+    }
+
+    /**
+     * Replace the file with a retained backup version of that same file; versions of another
+     * file are rejected. The current contents are backed up when auto-backup is on, so a
+     * restore can itself be undone. That backup is snapshotted first but only queued once the
+     * restore is done, so the rotation it triggers cannot expire the version being read.
+     */
+    public void restoreBackup(String versionName, String filePath) throws FileStorageException {
+        lockForWrite();
+        Runnable safetyBackup = null;
+        try {
+            backupStore().find(versionName, Paths.get(filePath)); // Reject before backing anything up
+            if (autoBackupEnabled) {
+                safetyBackup = prepareBackup(filePath);
             }
-        } catch (NumberFormatException e) {
-            return false;
+            long bytes = backupStore().restore(versionName, Paths.get(filePath));
+            invalidateLoadCache(filePath);
+            Files.deleteIfExists(WorkoutCheckpoint.pathFor(filePath)); // It describes the replaced contents
+            operationCount.incrementAndGet();
+            logOperation("Restored " + versionName + " to " + filePath + " (" + bytes + " bytes)");
+        } catch (IOException | UncheckedIOException e) {
+            throw new FileStorageException("Failed to restore backup: " + e.getMessage(), e);
+        } finally {
+            if (safetyBackup != null) {
+                safetyBackup.run();
+            }
+            fileLock.writeLock().unlock();
         }
+    }
+
+    // Wait for backups taken so far to be written; false if the timeout passed first.
+    public boolean awaitBackups(long timeout, TimeUnit unit) throws InterruptedException {
+        return backupStore().awaitIdle(timeout, unit);
+    }
+
+    private static BackupStore backupStore() {
+        return BackupStore.forDirectory(Paths.get(BACKUP_DIRECTORY));
+    }
+
+    public boolean isValidWorkoutEntry(String entry) {
+        return parseWorkoutLine(entry) != null;
+    }
 
-        String completed = parts.get(6).trim().toLowerCase();
-        return "true".equals(completed) || "false".equals(completed);
+    /**
+     * Parses one CSV row into a Workout, returning null when the row fails validation.
+     */
+    Workout parseWorkoutLine(String line) {
+        if (line == null) {
+            return null;
+        }
+        CsvTokenizer tokens = CsvTokenizer.local().tokenize(line);
+        return tokens.isBlankLine() ? null : toWorkout(tokens);
     }
 
     public boolean fileExists(String filePath) {
@@ -308,13 +1069,74 @@ public class FileStorage {
     }
 
     public boolean deleteFile(String filePath) {
+        invalidateLoadCache(filePath);
         try {
+            Files.deleteIfExists(WorkoutRollups.pathFor(filePath));
+            Files.deleteIfExists(NoteIndex.pathFor(filePath));
+            Files.deleteIfExists(WorkoutCheckpoint.pathFor(filePath));
             return Files.deleteIfExists(Paths.get(filePath));
         } catch (IOException e) {
             return false;
         }
     }
 
+    public StorageFormat getStorageFormat() {
+        return storageFormat;
+    }
+
+    public void setStorageFormat(StorageFormat storageFormat) {
+        this.storageFormat = storageFormat == null ? StorageFormat.CSV : storageFormat;
+        workoutCache.clear(); // Cached workouts were decoded with the old format
+    }
+
+    // Turn the parsed-file cache on or off; turning it off also empties it.
+    public void setLoadCacheEnabled(boolean enabled) {
+        this.loadCacheEnabled = enabled;
+        if (!enabled) {
+            rowCache.clear();
+            workoutCache.clear();
+        }
+    }
+
+    // Loads answered from the parsed-file cache since this storage was created.
+    public long getLoadCacheHits() {
+        return rowCache.getHits() + workoutCache.getHits();
+    }
+
+    /**
+     * When enabled, CSV saves of workout objects also write a binary checkpoint beside the
+     * file, and loads decode it instead of parsing the rows it covers.
+     */
+    public void setCheckpointEnabled(boolean enabled) {
+        this.checkpointEnabled = enabled;
+    }
+
+    public boolean isCheckpointEnabled() {
+        return checkpointEnabled;
+    }
+
+    // Rows the most recent checkpointed load took from the checkpoint; 0 after a full parse.
+    public int getLastCheckpointRows() {
+        return lastCheckpointRows;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public void setDurability(Durability durability) {
+        this.durability = durability == null ? Durability.NONE : durability;
+    }
+
+    // Statistics of the most recent successful save by this storage, or null before the first.
+    public SaveStats getLastSaveStats() {
+        return lastSaveStats;
+    }
+
+    public boolean isAutoBackupEnabled() {
+        return autoBackupEnabled;
+    }
+
     public void setAutoBackupEnabled(boolean enabled) {
         this.autoBackupEnabled = enabled;
     }
@@ -328,7 +1150,21 @@ public class FileStorage {
     }
 
     public int getOperationCount() {
-        return operationCount;
+        return operationCount.get();
+    }
+
+    public StorageMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Plug in a metrics sink; null restores the no-op default.
+    public void setMetrics(StorageMetrics metrics) {
+        this.metrics = metrics == null ? StorageMetrics.NOOP : metrics;
+    }
+
+    // Turn the per-operation console line on or off; metrics and JFR events are unaffected.
+    public void setOperationLoggingEnabled(boolean enabled) {
+        this.operationLoggingEnabled = enabled;
     }
 
     private void initializeDirectories() {
@@ -340,96 +1176,205 @@ public class FileStorage {
         }
     }
 
-    private void rotateBackups() {
-        try {
-            File backupDir = new File(BACKUP_DIRECTORY);
-            File[] backups = backupDir.listFiles((dir, name) -> name.contains("_backup_"));
-            if (backups != null && backups.length > MAX_BACKUPS) {
-                java.util.Arrays.sort(backups, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
-                int toDelete = backups.length - MAX_BACKUPS;
-                for (int i = 0; i < toDelete; i++) {
-                    backups[i].delete();
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("[FileStorage] Backup rotation failed: " + e.getMessage());
+    // Apply the CSV save rules to a Workout directly: single-line trimmed text, valid numbers, normalized name.
+    Workout sanitizeForStorage(Workout workout) {
+        if (workout == null) {
+            return null;
         }
+
+        String date = cleanText(workout.getDate());
+        int epochDay = date.equals(workout.getDate()) ? workout.getEpochDay() : DateCodec.toEpochDay(date);
+        String exercise = ExerciseDictionary.intern(cleanText(workout.getExercise()));
+        if (epochDay == DateCodec.INVALID || exercise.isEmpty()
+                || workout.getWeight() < 0 || workout.getReps() < 0 || workout.getSets() < 0) {
+            return null;
+        }
+
+        return new Workout(date, epochDay, exercise, workout.getWeight(), workout.getReps(), workout.getSets(),
+                cleanText(workout.getNote()), workout.isCompleted());
     }
 
-    private boolean isValidDate(String value) {
+    private void invalidateLoadCache(String filePath) {
+        rowCache.invalidate(filePath);
+        workoutCache.invalidate(filePath);
+    }
+
+    private static List<Workout> copyWorkouts(List<Workout> workouts) {
+        List<Workout> copies = new ArrayList<>(workouts.size());
+        for (Workout w : workouts) {
+            copies.add(new Workout(w.getDate(), w.getEpochDay(), w.getExercise(), w.getWeight(), w.getReps(),
+                    w.getSets(), w.getNote(), w.isCompleted()));
+        }
+        return copies;
+    }
+
+    private static String cleanText(String value) {
+        return value == null ? "" : value.replace("\r", " ").replace("\n", " ").trim();
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> combined = new ArrayList<>(first);
+        combined.addAll(second);
+        return combined;
+    }
+
+    // Check one tokenized row against the storage rules without building anything.
+    private static boolean isValidRow(CsvTokenizer tokens) {
+        if (tokens.fieldCount() < 7 || tokens.length(1) == 0
+                || DateCodec.toEpochDay(tokens.pooled(0)) == DateCodec.INVALID) {
+            return false;
+        }
         try {
-            LocalDate.parse(value);
-            return true;
-        } catch (DateTimeParseException ignored) {
-            try {
-                DateTimeFormatter us = DateTimeFormatter.ofPattern("M/d/yy");
-                LocalDate.parse(value, us);
-                return true;
-            } catch (DateTimeParseException ignoredAgain) {
-                try {
-                    DateTimeFormatter us4 = DateTimeFormatter.ofPattern("M/d/yyyy");
-                    LocalDate.parse(value, us4);
-                    return true;
-                } catch (DateTimeParseException e) {
-                    return false;
-                }
+            if (tokens.doubleField(2) < 0 || tokens.intField(3) < 0 || tokens.intField(4) < 0) {
+                return false;
             }
+        } catch (NumberFormatException e) {
+            return false;
         }
+        return tokens.fieldEqualsIgnoreCase(6, "true") || tokens.fieldEqualsIgnoreCase(6, "false");
     }
 
-    private List<String> parseCsvLine(String line) {
-        List<String> fields = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
+    // Date and exercise checks on the raw row; rows too broken to check are left for validation to report.
+    private static boolean isFilteredOut(CsvTokenizer tokens, WorkoutQuery query) {
+        if (tokens.fieldCount() < 7) {
+            return false;
+        }
+        int epochDay = DateCodec.toEpochDay(tokens.pooled(0));
+        return epochDay != DateCodec.INVALID && (!query.matchesDay(epochDay) || !query.matchesExercise(tokens));
+    }
 
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            if (c == '"') {
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    current.append('"');
-                    i++;
-                } else {
-                    inQuotes = !inQuotes;
-                }
-            } else if (c == ',' && !inQuotes) {
-                fields.add(current.toString().trim());
-                current.setLength(0);
-            } else {
-                current.append(c);
-            }
+    // Build the Workout one tokenized row describes, or null if the row is invalid.
+    Workout toWorkout(CsvTokenizer tokens) {
+        if (!isValidRow(tokens)) {
+            return null;
         }
+        String date = tokens.pooled(0);
+        return new Workout(date, DateCodec.toEpochDay(date), ExerciseDictionary.intern(tokens.pooled(1)),
+                tokens.doubleField(2), tokens.intField(3), tokens.intField(4), tokens.field(5),
+                tokens.fieldEqualsIgnoreCase(6, "true"));
+    }
 
-        fields.add(current.toString().trim());
-        return fields;
+    /**
+     * Encode a workout as a CSV row under the save rules (the same ones sanitizeForStorage
+     * applies), or return false when it cannot be stored. Allocates nothing for typical rows.
+     */
+    private static boolean encodeForStorage(Workout workout, CsvEncoder encoder) {
+        String date = cleanText(workout.getDate());
+        String exercise = ExerciseDictionary.normalize(workout.getExercise());
+        if (exercise.isEmpty() || DateCodec.toEpochDay(date) == DateCodec.INVALID
+                || workout.getWeight() < 0 || workout.getReps() < 0 || workout.getSets() < 0) {
+            return false;
+        }
+        encoder.field(date).field(exercise).field(workout.getWeight()).field(workout.getReps())
+                .field(workout.getSets()).field(workout.getNote()).field(workout.isCompleted());
+        return true;
     }
 
-    private String toCsvLine(List<String> fields) {
-        StringBuilder csv = new StringBuilder();
-        for (int i = 0; i < fields.size(); i++) {
-            if (i > 0) {
-                csv.append(DELIMITER);
-            }
-            csv.append(escapeCsvField(fields.get(i)));
+    private void lockForRead() {
+        acquire(fileLock.readLock(), false);
+    }
+
+    private void lockForWrite() {
+        acquire(fileLock.writeLock(), true);
+    }
+
+    // Take the lock while timing the wait for metrics and the JFR lock-wait event.
+    private void acquire(Lock lock, boolean writeLock) {
+        StorageEvents.LockWait event = new StorageEvents.LockWait();
+        event.begin();
+        long startNanos = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - startNanos;
+        event.end();
+        if (event.shouldCommit()) {
+            event.writeLock = writeLock;
+            event.commit();
         }
-        return csv.toString();
+        metrics.recordLockWait(waited, writeLock);
     }
 
-    private String escapeCsvField(String value) {
-        String safe = value == null ? "" : value.replace("\r", " ").replace("\n", " ").trim();
-        boolean requiresQuotes = safe.contains(DELIMITER) || safe.contains("\"");
-        safe = safe.replace("\"", "\"\"");
-        return requiresQuotes ? "\"" + safe + "\"" : safe;
+    // A load in progress: its event and start time, and the rows and bytes read so far.
+    private static final class LoadStart {
+        final StorageEvents.Load event = new StorageEvents.Load();
+        final long startNanos;
+        int rows;
+        long bytes;
+
+        LoadStart() {
+            event.begin();
+            startNanos = System.nanoTime();
+        }
     }
 
-    private String normalizeExerciseName(String exercise) {
-        if (exercise == null) {
-            return "";
+    // bytes is what this load read from disk, which a cache hit or an early stop keeps small.
+    private void completeLoad(StorageEvents.Load event, long startNanos, String filePath, int rows, int skipped,
+            long bytes, String message) {
+        long nanos = System.nanoTime() - startNanos;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = filePath;
+            event.rows = rows;
+            event.skippedRows = skipped;
+            event.bytes = bytes;
+            event.commit();
+        }
+        metrics.recordLoad(nanos, rows, bytes, skipped);
+        operationCount.incrementAndGet();
+        logOperation(message);
+    }
+
+    private void completeSave(StorageEvents.Save event, SaveStats stats, String filePath, int rows, int skipped,
+            String message) {
+        long nanos = stats.getTotalNanos();
+        long bytes = stats.getBytesWritten();
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = filePath;
+            event.rows = rows;
+            event.skippedRows = skipped;
+            event.bytes = bytes;
+            event.durability = stats.getDurability().name();
+            event.fileSyncDuration = Math.max(stats.getFileSyncNanos(), 0);
+            event.directorySyncDuration = Math.max(stats.getDirectorySyncNanos(), 0);
+            event.commit();
+        }
+        metrics.recordSave(nanos, rows, bytes, skipped);
+        if (stats.getFileSyncNanos() >= 0) {
+            metrics.recordSync(stats.getFileSyncNanos(), false);
+        }
+        if (stats.getDirectorySyncNanos() >= 0) {
+            metrics.recordSync(stats.getDirectorySyncNanos(), true);
+        }
+        operationCount.incrementAndGet();
+        logOperation(message);
+    }
+
+    private void completeBackup(StorageEvents.Backup event, long startNanos, String filePath, long bytes,
+            boolean success) {
+        long nanos = System.nanoTime() - startNanos;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = filePath;
+            event.bytes = bytes;
+            event.success = success;
+            event.commit();
+        }
+        metrics.recordBackup(nanos, bytes, success);
+    }
+
+    private static long fileSize(String filePath) {
+        try {
+            return Files.size(Paths.get(filePath));
+        } catch (IOException e) {
+            return 0;
         }
-        return exercise.trim().replaceAll("\\s+", " ");
     }
 
     private void logOperation(String message) {
-        String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
+        if (!operationLoggingEnabled) {
+            return;
+        }
+        String ts = LocalTime.now().format(LOG_TIME_FORMAT);
         System.out.println("[FileStorage " + ts + "] " + message);
     }
 
@@ -14,6 +14,28 @@ public class FileStorageTest {
         testInvalidRowsSkipped();
         testBackupCreation();
         testQuotedCsvHandling();
+        testStreamingLoad();
+        testDateCodec();
+        testExerciseDictionary();
+        testCsvTokenizerAndEncoder();
+        testJournalReplayAfterCrash();
+        testDurableJournalRecords();
+        testParallelLoadMatchesSequential();
+        testBinaryFormatRoundTrip();
+        testMetricsRecorded();
+        testLoadMetricsCountBytesRead();
+        testDurableSaveStats();
+        testAutoSaveCoalescesEdits();
+        testBulkImportDeduplicates();
+        testPartitionedSaveRewritesOnlyDirtyMonths();
+        testQueryPushdown();
+        testDeduplicatedBackupRestore();
+        testRestoreOldestRetainedVersion();
+        testLoadCacheTracksFileIdentity();
+        testRollupsRefreshOnSave();
+        testCheckpointParsesOnlyTheTail();
+        testAppendAddsRowsWithoutRewriting();
+        testChannelWritersShareSpareBuffers();
         System.out.println("All FileStorage tests passed.");
     }
 
@@ -71,6 +93,7 @@ public class FileStorageTest {
 
         storage.saveWorkouts(data1, filePath);
         storage.saveWorkouts(data2, filePath);
+        assertTrue(storage.awaitBackups(10, java.util.concurrent.TimeUnit.SECONDS), "Backups should finish");
 
         String backupPrefix = uniqueName.replace(".csv", "_backup_");
         long backupCount = Files.list(Path.of("data", "backups"))
@@ -98,12 +121,781 @@ public class FileStorageTest {
         assertEquals("Felt \"great\", strong form", loaded.get(0).getNote(), "Quoted/comma notes should be preserved");
     }
 
+    private static void testStreamingLoad() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-stream-");
+        Path csv = tempDir.resolve("workouts_stream.csv");
+
+        List<String> lines = List.of(
+                "date,exercise,weight,reps,sets,note,completed",
+                "2/21/2026,Squat,185.0,8,4,\"Deep, slow\",true",
+                "2/21/2026,BadNegative,-10,8,3,Invalid,false",
+                "2026-02-22,Deadlift,225.0,5,3,Easy,FALSE"
+        );
+        Files.write(csv, lines);
+
+        FileStorage storage = new FileStorage(csv.toString());
+        List<Workout> streamed = new java.util.ArrayList<>();
+        FileStorage.OperationResult<Void> result = storage.streamWorkoutObjects(csv.toString(), streamed::add);
+
+        assertEquals(3, result.getProcessedCount(), "Should process 3 data rows");
+        assertEquals(2, result.getSuccessCount(), "Should stream only valid rows");
+        assertEquals(1, result.getSkippedCount(), "Should skip invalid rows");
+        assertEquals(2, streamed.size(), "Consumer should receive each valid row once");
+        assertEquals("Deep, slow", streamed.get(0).getNote(), "Quoted notes should be unescaped");
+        assertEquals(false, streamed.get(1).isCompleted(), "Completed flag should be case-insensitive");
+    }
+
+    private static void testDateCodec() {
+        assertEquals(20505, DateCodec.toEpochDay("2026-02-21"), "ISO dates should decode to epoch days");
+        assertEquals(20505, DateCodec.toEpochDay("2/21/2026"), "US four-digit years should decode");
+        assertEquals(20505, DateCodec.toEpochDay("02/21/26"), "US two-digit years should decode");
+        assertEquals(DateCodec.INVALID, DateCodec.toEpochDay("2026-02-30"), "ISO dates should be strict");
+        assertEquals(DateCodec.toEpochDay("2/28/2026"), DateCodec.toEpochDay("2/30/2026"), "US dates clamp to month end");
+        assertEquals(DateCodec.INVALID, DateCodec.toEpochDay("13/1/2026"), "Month should be range checked");
+        assertEquals(DateCodec.INVALID, DateCodec.toEpochDay("bad-date"), "Garbage should be rejected");
+
+        Workout workout = new Workout("2/21/2026", "Squat", 185.0, 8, 4, "", true);
+        assertEquals(20505, workout.getEpochDay(), "Workout should carry its epoch day");
+        assertEquals("2/21/2026", workout.getDate(), "Workout should keep the original date text");
+    }
+
+    private static void testExerciseDictionary() throws Exception {
+        assertEquals("Bench Press", ExerciseDictionary.normalize("  Bench \t\n Press "), "Whitespace should collapse");
+        String normal = "Overhead Press";
+        assertTrue(normal == ExerciseDictionary.normalize(normal), "Normal names should not be copied");
+        assertEquals(ExerciseDictionary.idOf("Bench Press"), ExerciseDictionary.idOf(" Bench  Press"),
+                "Equivalent names should share an id");
+        assertEquals(ExerciseDictionary.UNKNOWN, ExerciseDictionary.lookup("Never Logged Lift"),
+                "Lookups should not intern names");
+
+        Path tempDir = Files.createTempDirectory("workout-storage-dictionary-");
+        Path csv = tempDir.resolve("workouts_dictionary.csv");
+        Files.write(csv, List.of("2/21/2026,Bench Press,135.0,10,3,,true", "2/22/2026,Bench Press,140.0,8,3,,true"));
+        List<Workout> loaded = new FileStorage(csv.toString()).loadWorkoutObjects(csv.toString());
+        assertTrue(loaded.get(0).getExercise() == loaded.get(1).getExercise(), "Loaded names should be shared");
+        assertEquals(ExerciseDictionary.idOf("Bench Press"), loaded.get(0).getExerciseId(), "Workouts should carry ids");
+    }
+
+    private static void testCsvTokenizerAndEncoder() {
+        CsvTokenizer tokens = new CsvTokenizer().tokenize(" 2/21/2026 ,\"Bench, \"\"Paused\"\"\", 132.5 ,-8,+3, note ,TRUE");
+        assertEquals(7, tokens.fieldCount(), "Quoted commas should not split fields");
+        assertEquals("2/21/2026", tokens.field(0), "Fields should be trimmed");
+        assertEquals("Bench, \"Paused\"", tokens.field(1), "Quotes should be unescaped");
+        assertEquals(132.5, tokens.doubleField(2), "Decimals should parse from the buffer");
+        assertEquals(-8, tokens.intField(3), "Negative ints should parse");
+        assertEquals(3, tokens.intField(4), "Signed ints should parse");
+        assertTrue(tokens.pooled(0) == tokens.pooled(0), "Pooled text should be reused");
+        assertEquals(1000.0, new CsvTokenizer().tokenize("1e3").doubleField(0), "Other forms should fall back");
+
+        String row = new CsvEncoder().field(tokens, 0).field(tokens, 1).field(132.5).field(-8).field(3)
+                .field("line\nbreak").field(true).toString();
+        assertEquals("2/21/2026,\"Bench, \"\"Paused\"\"\",132.5,-8,3,line break,true", row,
+                "Encoder should escape and format like the old writer");
+        assertEquals(String.valueOf(0.1 + 0.2), new CsvEncoder().field(0.1 + 0.2).toString(),
+                "Long decimals should match String.valueOf");
+    }
+
+    private static void testJournalReplayAfterCrash() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-journal-");
+        String filePath = tempDir.resolve("workouts_journal.csv").toString();
+
+        FileStorage storage = new FileStorage(filePath);
+        storage.setAutoBackupEnabled(false);
+
+        WorkoutLog log = new WorkoutLog();
+        WorkoutJournal journal = new WorkoutJournal(storage, filePath, 3);
+        journal.open(log);
+        log.addWorkout(new Workout("2/21/2026", "Squat", 185.0, 8, 4, "First", false));
+        log.addWorkout(new Workout("2/22/2026", "Bench Press", 135.0, 10, 3, "Second", false));
+        log.addWorkout(new Workout("2/23/2026", "Deadlift", 225.0, 5, 3, "Third", false));
+        assertTrue(journal.awaitIdle(10, java.util.concurrent.TimeUnit.SECONDS), "Compaction should finish");
+        log.markCompleted(0);
+        log.removeWorkout(1);
+
+        // Simulate a crash: never close the first journal, reopen from disk.
+        WorkoutLog recovered = new WorkoutLog();
+        FileStorage.OperationResult<Void> replayed = new WorkoutJournal(storage, filePath, 3).open(recovered);
+
+        assertEquals(2, replayed.getSuccessCount(), "Only records after the compaction should replay");
+        assertEquals(2, recovered.getTotalWorkouts(), "Recovered log should match the crashed session");
+        assertEquals(true, recovered.getWorkout(0).isCompleted(), "Completion should be replayed");
+        assertEquals("Deadlift", recovered.getWorkout(1).getExercise(), "Removal should be replayed");
+    }
+
+    private static void testDurableJournalRecords() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-journal-sync-");
+        String filePath = tempDir.resolve("workouts_journal.csv").toString();
+
+        FileStorage storage = new FileStorage(filePath);
+        storage.setAutoBackupEnabled(false);
+        storage.setDurability(FileStorage.Durability.FSYNC_FILE_AND_DIRECTORY);
+
+        WorkoutLog log = new WorkoutLog();
+        WorkoutJournal journal = new WorkoutJournal(storage, filePath, 100);
+        journal.open(log);
+        log.addWorkout(new Workout("2/21/2026", "Squat", 185.0, 8, 4, "Synced", false));
+        log.markCompleted(0);
+        assertEquals(3, Files.readAllLines(Path.of(journal.getJournalPath())).size(),
+                "Each record should be on disk when the edit returns");
+
+        WorkoutLog recovered = new WorkoutLog();
+        java.util.concurrent.atomic.AtomicInteger completions = new java.util.concurrent.atomic.AtomicInteger();
+        recovered.addListener(new WorkoutLogListener() {
+            @Override
+            public void workoutCompleted(int index, Workout workout) {
+                completions.incrementAndGet();
+            }
+        });
+        new WorkoutJournal(storage, filePath, 100).open(recovered);
+        assertEquals(1, recovered.getTotalWorkouts(), "Synced records should replay");
+        assertEquals(true, recovered.getWorkout(0).isCompleted(), "Synced completion should replay");
+        assertEquals(1, completions.get(), "Listeners should hear about replayed completions");
+
+        // A same-size rewrite with the old modification time must not take the old journal's records.
+        WorkoutJournal crashed = new WorkoutJournal(storage, filePath, 100);
+        WorkoutLog edited = new WorkoutLog();
+        crashed.open(edited);
+        edited.addWorkout(new Workout("2/22/2026", "Bench Press", 135.0, 10, 3, "Unsaved", false));
+        Path csv = Path.of(filePath);
+        java.nio.file.attribute.FileTime modified = Files.getLastModifiedTime(csv);
+        String text = new String(Files.readAllBytes(csv), java.nio.charset.StandardCharsets.UTF_8);
+        Files.write(csv, text.replace("185.0", "195.0").getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(csv, modified);
+
+        WorkoutLog reopened = new WorkoutLog();
+        FileStorage.OperationResult<Void> unmatched = new WorkoutJournal(storage, filePath, 100).open(reopened);
+        assertEquals(1, reopened.getTotalWorkouts(), "An unmatched journal should not be replayed");
+        assertTrue(unmatched.hasErrors(), "An unmatched journal should be reported");
+        try (java.util.stream.Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1L, files.filter(file -> file.toString().endsWith(".unmatched")).count(),
+                    "An unmatched journal should be kept aside");
+        }
+    }
+
+    private static void testParallelLoadMatchesSequential() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-parallel-");
+        Path csv = tempDir.resolve("workouts_parallel.csv");
+
+        List<String> lines = new java.util.ArrayList<>();
+        lines.add("date,exercise,weight,reps,sets,note,completed");
+        for (int i = 0; i < 60000; i++) {
+            lines.add(i % 1000 == 7
+                    ? "bad-date,Squat,100,5,5,Broken,true"
+                    : "2/21/2026,Squat," + i + ".5,5,5,\"Row " + i + ", steady\",true");
+            if (i % 5000 == 0) {
+                lines.add("");
+            }
+        }
+        Files.write(csv, lines);
+
+        FileStorage storage = new FileStorage(csv.toString());
+        FileStorage.OperationResult<List<String>> sequential = storage.loadWorkoutsWithResult(csv.toString());
+        FileStorage.OperationResult<List<Workout>> parallel = storage.loadWorkoutObjectsParallel(
+                csv.toString(), new java.util.concurrent.ForkJoinPool(4));
+
+        assertEquals(sequential.getProcessedCount(), parallel.getProcessedCount(), "Processed counts should match");
+        assertEquals(sequential.getSuccessCount(), parallel.getSuccessCount(), "Success counts should match");
+        assertEquals(sequential.getSkippedCount(), parallel.getSkippedCount(), "Skipped counts should match");
+        assertEquals(sequential.getErrors(), parallel.getErrors(), "Line-numbered errors should match");
+        assertEquals(sequential.getData().get(41234), parallel.getData().get(41234).toCsvLine(), "Rows should stay in file order");
+    }
+
+    private static void testBinaryFormatRoundTrip() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-binary-");
+        String csvPath = tempDir.resolve("workouts_source.csv").toString();
+        String binaryPath = tempDir.resolve("workouts.wkb").toString();
+        String csvCopyPath = tempDir.resolve("workouts_copy.csv").toString();
+
+        FileStorage storage = new FileStorage(csvPath);
+        storage.setAutoBackupEnabled(false);
+        storage.saveWorkoutObjects(List.of(
+                new Workout("2/21/2026", "Bench  Press", 135.5, 10, 3, "Felt \"great\", strong form", true),
+                new Workout("2026-02-22", "Squat", 185.0, 8, 4, "", false),
+                new Workout("bad-date", "Squat", 185.0, 8, 4, "Dropped", false)
+        ), csvPath);
+
+        FileStorage.OperationResult<Void> converted = storage.convertCsvToBinary(csvPath, binaryPath);
+        assertEquals(2, converted.getSuccessCount(), "Conversion should write every valid row");
+
+        FileStorage binary = new FileStorage(binaryPath);
+        binary.setAutoBackupEnabled(false);
+        binary.setStorageFormat(FileStorage.StorageFormat.BINARY);
+        List<Workout> loaded = binary.loadWorkoutObjects(binaryPath);
+        assertEquals(2, loaded.size(), "Binary load should return every stored row");
+        assertEquals("Bench Press", loaded.get(0).getExercise(), "Exercise names should be normalized");
+        assertEquals(135.5, loaded.get(0).getWeight(), "Weights should survive exactly");
+        assertEquals("Felt \"great\", strong form", loaded.get(0).getNote(), "Notes should survive exactly");
+        assertEquals(false, loaded.get(1).isCompleted(), "Completed bits should survive");
+
+        binary.convertBinaryToCsv(binaryPath, csvCopyPath);
+        assertEquals(Files.readAllLines(Path.of(csvPath)), Files.readAllLines(Path.of(csvCopyPath)),
+                "Binary to CSV conversion should reproduce the CSV file");
+
+        byte[] bytes = Files.readAllBytes(Path.of(binaryPath));
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(Path.of(binaryPath), bytes);
+        boolean rejected = false;
+        try {
+            binary.loadWorkoutObjects(binaryPath);
+        } catch (FileStorage.FileStorageException e) {
+            rejected = true;
+        }
+        assertTrue(rejected, "Corrupt binary files should be rejected");
+    }
+
+    private static void testDurableSaveStats() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-durable-");
+        String filePath = tempDir.resolve("workouts_durable.csv").toString();
+
+        FileStorage storage = new FileStorage(filePath);
+        storage.setAutoBackupEnabled(false);
+        storage.setDurability(FileStorage.Durability.FSYNC_FILE_AND_DIRECTORY);
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        storage.setMetrics(metrics);
+
+        List<Workout> workouts = List.of(new Workout("2/21/2026", "Squat", 185.0, 5, 5, "Caf\u00e9 \uD83D\uDCAA", true));
+        assertTrue(storage.saveWorkoutObjects(workouts, filePath), "Durable save should succeed");
+
+        FileStorage.SaveStats stats = storage.getLastSaveStats();
+        assertEquals(Files.size(Path.of(filePath)), stats.getBytesWritten(), "Stats should count every byte written");
+        assertTrue(stats.getFileSyncNanos() > 0, "File should be forced to disk");
+        assertEquals(1L, metrics.getFileSync().getCount(), "File sync should be recorded");
+        assertEquals(false, Files.exists(Path.of(filePath + ".tmp")), "Temp file should be renamed away");
+        assertEquals("Caf\u00e9 \uD83D\uDCAA", storage.loadWorkoutObjects(filePath).get(0).getNote(),
+                "Non-ASCII notes should round-trip as UTF-8");
+    }
+
+    private static void testMetricsRecorded() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-metrics-");
+        String filePath = tempDir.resolve("workouts_metrics.csv").toString();
+
+        FileStorage storage = new FileStorage(filePath);
+        storage.setAutoBackupEnabled(false);
+        storage.setOperationLoggingEnabled(false);
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        storage.setMetrics(metrics);
+
+        storage.saveWorkouts(List.of("2/21/2026,Squat,185.0,8,4,Valid,true", "bad-date,Squat,1,1,1,Bad,true"), filePath);
+        storage.loadWorkoutObjects(filePath);
+
+        assertEquals(1L, metrics.getSaveLatency().getCount(), "Save latency should be recorded");
+        assertEquals(1L, metrics.getLoadLatency().getCount(), "Load latency should be recorded");
+        assertEquals(1L, metrics.getRowsSaved(), "Saved rows should be counted");
+        assertEquals(1L, metrics.getRowsLoaded(), "Loaded rows should be counted");
+        assertEquals(1L, metrics.getSkippedRows(), "Skipped rows should be counted");
+        assertEquals(Files.size(Path.of(filePath)), metrics.getBytesRead(), "Bytes read should match the file");
+        assertEquals(2L, metrics.getReadLockWait().getCount() + metrics.getWriteLockWait().getCount(),
+                "Lock waits should be recorded");
+        assertEquals(2, storage.getOperationCount(), "Operations should be counted");
+    }
+
+    private static void testLoadMetricsCountBytesRead() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-bytes-read-");
+        Path csv = tempDir.resolve("workouts_bytes_read.csv");
+        FileStorage storage = new FileStorage(csv.toString());
+        storage.setAutoBackupEnabled(false);
+        storage.setOperationLoggingEnabled(false);
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        storage.setMetrics(metrics);
+
+        List<Workout> workouts = new java.util.ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            workouts.add(new Workout("1/" + (i % 28 + 1) + "/2026", "Squat", 100.0 + i, 5, 5, "Row " + i, true));
+        }
+        storage.saveWorkoutObjects(workouts, csv.toString());
+        long fileSize = Files.size(csv);
+        long written = metrics.getBytesWritten();
+
+        storage.query(csv.toString(), new WorkoutQuery().limit(1));
+        long limitedBytes = metrics.getBytesRead();
+        assertTrue(limitedBytes > 0 && limitedBytes < fileSize, "A limited query should count only what it read");
+
+        storage.loadWorkoutObjects(csv.toString());
+        assertEquals(limitedBytes + fileSize, metrics.getBytesRead(), "A full load should count the whole file");
+        storage.loadWorkoutObjects(csv.toString());
+        assertEquals(3L, metrics.getLoadLatency().getCount(), "Cache hits should be recorded as loads");
+        assertEquals(limitedBytes + fileSize, metrics.getBytesRead(), "Cache hits should read no bytes");
+
+        storage.setLoadCacheEnabled(false);
+        storage.setCheckpointEnabled(true);
+        storage.saveWorkoutObjects(workouts, csv.toString());
+        long checkpointSize = Files.size(Path.of(csv + WorkoutCheckpoint.FILE_SUFFIX));
+        String appended = "2/1/2026,Row,95.0,10,3,Appended,false";
+        Files.write(csv, List.of(appended), java.nio.file.StandardOpenOption.APPEND);
+        long before = metrics.getBytesRead();
+        long rowsBefore = metrics.getRowsLoaded();
+        assertEquals(10001, storage.loadWorkoutObjects(csv.toString()).size(), "The tail should follow the checkpoint");
+        assertEquals(4L, metrics.getLoadLatency().getCount(), "A checkpoint load should be one load");
+        assertEquals(10001L, metrics.getRowsLoaded() - rowsBefore,
+                "A checkpoint load should count its rows once");
+        assertEquals(checkpointSize + Files.size(csv), metrics.getBytesRead() - before,
+                "A checkpoint load should count the checkpoint, the verified prefix and the tail");
+
+        long savesWritten = metrics.getBytesWritten();
+        assertTrue(savesWritten > written, "Saves should count bytes written");
+        assertTrue(storage.createBackup(csv.toString()), "The backup should be taken");
+        assertTrue(storage.awaitBackups(5, java.util.concurrent.TimeUnit.SECONDS), "The backup should finish");
+        assertTrue(metrics.getBackupBytes() > 0, "Backups should count the bytes they stored");
+        assertEquals(savesWritten, metrics.getBytesWritten(), "Backups should not count as bytes written");
+    }
+
+    private static void testAutoSaveCoalescesEdits() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-autosave-");
+        String filePath = tempDir.resolve("workouts_autosave.csv").toString();
+
+        FileStorage storage = new FileStorage(filePath);
+        storage.setAutoBackupEnabled(false);
+        storage.setOperationLoggingEnabled(false);
+        HistogramStorageMetrics metrics = new HistogramStorageMetrics();
+        storage.setMetrics(metrics);
+
+        WorkoutLog log = new WorkoutLog();
+        java.util.concurrent.CountDownLatch saved = new java.util.concurrent.CountDownLatch(1);
+        AutoSaver autoSaver = new AutoSaver(log, storage, filePath, 10, 60_000, result -> saved.countDown());
+        for (int i = 0; i < 10; i++) {
+            log.addWorkout(new Workout("3/" + (i + 1) + "/2026", "Squat", 185.0 + i, 5, 5, "", false));
+        }
+
+        assertTrue(saved.await(5, java.util.concurrent.TimeUnit.SECONDS), "Reaching the threshold should save");
+        assertEquals(1L, metrics.getSaveLatency().getCount(), "A burst of edits should be one save");
+        assertEquals(10, storage.loadWorkoutObjects(filePath).size(), "Autosave should write every workout");
+
+        log.addWorkout(new Workout("3/20/2026", "Deadlift", 225.0, 5, 3, "", true));
+        assertEquals(1, autoSaver.getPendingChanges(), "Edits below the threshold should wait");
+        autoSaver.close();
+        assertEquals(11, storage.loadWorkoutObjects(filePath).size(), "Closing should flush pending edits");
+        assertEquals(0, autoSaver.getPendingChanges(), "Nothing should be pending after close");
+        boolean rejected = false;
+        try {
+            autoSaver.flushNow();
+        } catch (IllegalStateException e) {
+            rejected = true;
+        }
+        assertTrue(rejected, "Flushing a closed autosaver should say it is closed");
+
+        java.util.concurrent.CountDownLatch quiet = new java.util.concurrent.CountDownLatch(1);
+        AutoSaver debounced = new AutoSaver(log, storage, filePath, 100, 500, result -> quiet.countDown());
+        log.addWorkout(new Workout("3/21/2026", "Row", 95.0, 10, 3, "", true));
+        Thread.sleep(300);
+        log.addWorkout(new Workout("3/22/2026", "Row", 95.0, 10, 3, "", true));
+        Thread.sleep(300);
+        assertEquals(2, debounced.getPendingChanges(), "Each edit should push the flush back");
+        assertTrue(quiet.await(5, java.util.concurrent.TimeUnit.SECONDS), "Edits stopping should save");
+        debounced.close();
+        assertEquals(13, storage.loadWorkoutObjects(filePath).size(), "The delayed flush should save both edits");
+    }
+
+    private static void testBulkImportDeduplicates() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-import-");
+        Files.write(tempDir.resolve("a_phone.csv"), List.of(
+                "date,exercise,weight,reps,sets,note,completed",
+                "3/1/2026,Squat,185.0,5,5,Phone,true",
+                "3/2/2026,Bench Press,135.0,8,3,,false",
+                "bad-date,Squat,1,1,1,Bad,true"));
+        Files.write(tempDir.resolve("b_watch.csv"), List.of(
+                "date,exercise,weight,reps,sets,note,completed",
+                "2026-03-01, Squat ,185.0,5,5,Watch copy,false",
+                "3/3/2026,Deadlift,225.0,5,3,,true",
+                "3/3/2026,Deadlift,225.0,5,3,Same row twice,true"));
+
+        FileStorage storage = new FileStorage(tempDir.resolve("workouts.csv").toString());
+        storage.setAutoBackupEnabled(false);
+        storage.setOperationLoggingEnabled(false);
+        WorkoutLog log = new WorkoutLog();
+        log.addWorkout(new Workout("3/2/2026", "Bench Press", 135.0, 8, 3, "Already logged", true));
+
+        BulkImporter importer = new BulkImporter(storage, log);
+        importer.setBatchSize(2);
+        FileStorage.OperationResult<List<BulkImporter.FileStats>> result = importer.importPath(tempDir);
+
+        assertEquals(3, log.getTotalWorkouts(), "Only new, distinct workouts should be added");
+        assertEquals("Phone", log.getWorkout(1).getNote(), "The first copy in file order should win");
+        assertEquals(6, result.getProcessedCount(), "Every row should be processed");
+        assertEquals(2, result.getSuccessCount(), "Two workouts should be imported");
+        assertEquals(4, result.getSkippedCount(), "Invalid and duplicate rows should be skipped");
+        assertEquals(2, result.getData().size(), "Each file should have stats");
+        assertEquals(1, result.getData().get(0).getInvalidCount(), "Invalid rows should be counted per file");
+        assertEquals(2, result.getData().get(1).getDuplicateCount(), "Duplicates should be counted per file");
+        assertTrue(result.getErrors().get(0).startsWith("a_phone.csv: "), "Errors should name their file");
+    }
+
     private static void assertTrue(boolean condition, String message) {
         if (!condition) {
             throw new AssertionError(message);
         }
     }
 
+    private static void testPartitionedSaveRewritesOnlyDirtyMonths() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-partitioned-");
+        PartitionedFileStorage storage = new PartitionedFileStorage(tempDir.toString());
+        storage.setAutoBackupEnabled(false);
+
+        List<Workout> workouts = new java.util.ArrayList<>(List.of(
+                new Workout("1/10/2026", "Squat", 185.0, 5, 5, "January", true),
+                new Workout("2/03/2026", "Bench Press", 135.0, 8, 3, "February", true),
+                new Workout("2/21/2026", "Deadlift", 225.0, 5, 3, "Later February", false),
+                new Workout("3/01/2026", "Row", 95.0, 10, 3, "March", false)));
+        assertTrue(storage.saveWorkoutObjects(workouts), "Partitioned save should succeed");
+        assertEquals(3, storage.getLastRewrittenCount(), "First save should write every month");
+        assertTrue(Files.exists(tempDir.resolve("workouts-2026-02.csv")), "Months should get their own file");
+
+        long januaryModified = Files.getLastModifiedTime(tempDir.resolve("workouts-2026-01.csv")).toMillis();
+        workouts.get(2).setCompleted(true);
+        storage.saveWorkoutObjects(workouts);
+        assertEquals(1, storage.getLastRewrittenCount(), "Only the edited month should be rewritten");
+        assertEquals(januaryModified, Files.getLastModifiedTime(tempDir.resolve("workouts-2026-01.csv")).toMillis(),
+                "Clean months should be left alone");
+
+        List<Workout> february = storage.loadWorkoutObjects(java.time.LocalDate.of(2026, 2, 10),
+                java.time.LocalDate.of(2026, 3, 31));
+        assertEquals(2, february.size(), "Range load should filter to the requested days");
+        assertEquals(true, february.get(0).isCompleted(), "Range load should see the rewritten month");
+        assertEquals(4, storage.loadWorkoutObjects().size(), "Full load should read every month");
+
+        workouts.remove(3);
+        storage.saveWorkoutObjects(workouts);
+        assertEquals(false, Files.exists(tempDir.resolve("workouts-2026-03.csv")), "Emptied months should be removed");
+
+        // March cannot be written over a directory, so this save fails after rewriting January.
+        workouts.add(new Workout("3/05/2026", "Row", 100.0, 10, 3, "Blocked", false));
+        workouts.set(0, new Workout("1/02/2026", "Squat", 190.0, 5, 5, "Earlier January", true));
+        Files.createDirectory(tempDir.resolve("workouts-2026-03.csv"));
+        boolean failed = false;
+        try {
+            storage.saveWorkoutObjectsWithResult(workouts, tempDir.toString());
+        } catch (FileStorage.FileStorageException e) {
+            failed = true;
+        }
+        assertTrue(failed, "A partition that cannot be written should fail the save");
+        List<Workout> early = storage.loadWorkoutObjects(java.time.LocalDate.of(2026, 1, 1),
+                java.time.LocalDate.of(2026, 1, 5));
+        assertEquals(1, early.size(), "The manifest should describe the months the failed save wrote");
+        assertEquals("Earlier January", early.get(0).getNote(), "Range loads should see the rewritten month");
+        Files.delete(tempDir.resolve("workouts-2026-03.csv"));
+        storage.saveWorkoutObjects(workouts);
+        assertEquals(1, storage.getLastRewrittenCount(), "The next save should rewrite only the failed month");
+        assertEquals(4, storage.loadWorkoutObjects().size(), "The retried save should store every month");
+    }
+
+    private static void testQueryPushdown() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-query-");
+        Path csv = tempDir.resolve("workouts_query.csv");
+        Files.write(csv, List.of(
+                "date,exercise,weight,reps,sets,note,completed",
+                "2/01/2026,Squat,185,5,5,Heavy,true",
+                "2/02/2026,Bench Press,135,8,3,,false",
+                "bad-date,Squat,100,5,5,Broken,true",
+                "2/03/2026,Squat,95,5,5,Light,true",
+                "2/04/2026,Squat,205,3,5,,true",
+                "2/05/2026,Squat,215,3,5,,true",
+                "3/01/2026,Squat,225,3,5,,true"));
+
+        FileStorage storage = new FileStorage(csv.toString());
+        WorkoutQuery query = new WorkoutQuery()
+                .between(java.time.LocalDate.of(2026, 2, 1), java.time.LocalDate.of(2026, 2, 28))
+                .exercise(" Squat ").completed(true).minWeight(100).limit(2);
+        FileStorage.OperationResult<List<Workout>> result = storage.query(csv.toString(), query);
+
+        assertEquals(2, result.getData().size(), "Query should stop at the limit");
+        assertEquals(205.0, result.getData().get(1).getWeight(), "Light sets should be filtered out");
+        assertEquals(5, result.getProcessedCount(), "Scan should stop once the limit is reached");
+        assertEquals(1, result.getSkippedCount(), "Invalid rows should still be reported");
+        assertEquals(true, query.matches(result.getData().get(0)), "In-memory matching should agree");
+        assertEquals(0, storage.query(csv.toString(), new WorkoutQuery().exercise("Deadlift")).getData().size(),
+                "Unknown exercises should match nothing");
+    }
+
+    private static void testDeduplicatedBackupRestore() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-dedup-");
+        String filePath = tempDir.resolve("workouts_dedup_" + System.nanoTime() + ".csv").toString();
+        FileStorage storage = new FileStorage(filePath);
+        storage.setAutoBackupEnabled(true);
+
+        List<Workout> workouts = new java.util.ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            workouts.add(new Workout("2/21/2026", "Squat", 100 + i % 50, 5, 5, "Session " + i, i % 2 == 0));
+        }
+        storage.saveWorkoutObjects(workouts, filePath);
+        byte[] original = Files.readAllBytes(Path.of(filePath));
+        workouts.get(workouts.size() - 1).setCompleted(true);
+        storage.saveWorkoutObjects(workouts, filePath);
+        storage.saveWorkoutObjects(workouts, filePath);
+        assertTrue(storage.awaitBackups(10, java.util.concurrent.TimeUnit.SECONDS), "Backups should finish");
+
+        List<BackupStore.BackupVersion> versions = storage.listBackups(filePath);
+        assertEquals(2, versions.size(), "Each overwrite should add a version");
+        assertTrue(versions.get(1).getStoredBytes() < versions.get(1).getSize() / 10,
+                "A nearly identical version should reuse almost every chunk");
+
+        storage.restoreBackup(versions.get(0).getName(), filePath);
+        assertTrue(java.util.Arrays.equals(original, Files.readAllBytes(Path.of(filePath))),
+                "Restore should rebuild the exact bytes of the version");
+
+        // A file of the same name elsewhere has its own history and cannot take these versions.
+        Path otherDir = Files.createDirectories(tempDir.resolve("other"));
+        String otherPath = otherDir.resolve(Path.of(filePath).getFileName()).toString();
+        storage.saveWorkoutObjects(workouts.subList(0, 10), otherPath);
+        storage.saveWorkoutObjects(workouts.subList(0, 20), otherPath);
+        assertTrue(storage.awaitBackups(10, java.util.concurrent.TimeUnit.SECONDS), "Backups should finish");
+        List<BackupStore.BackupVersion> otherVersions = storage.listBackups(otherPath);
+        assertEquals(1, otherVersions.size(), "Same-named files should not share versions");
+        assertEquals(Path.of(otherPath).toAbsolutePath().normalize().toString(), otherVersions.get(0).getSourcePath(),
+                "Versions should record their source path");
+        assertEquals(3, storage.listBackups(filePath).size(), "The first file should keep only its own versions");
+        byte[] other = Files.readAllBytes(Path.of(otherPath));
+        try {
+            storage.restoreBackup(versions.get(0).getName(), otherPath);
+            throw new AssertionError("Restoring another file's backup should fail");
+        } catch (FileStorage.FileStorageException expected) {
+            assertTrue(java.util.Arrays.equals(other, Files.readAllBytes(Path.of(otherPath))),
+                    "A rejected restore should leave the file alone");
+        }
+        assertTrue(storage.awaitBackups(10, java.util.concurrent.TimeUnit.SECONDS), "Backups should finish");
+        assertEquals(1, storage.listBackups(otherPath).size(), "A rejected restore should not back up the file");
+    }
+
+    private static void testRestoreOldestRetainedVersion() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-restore-oldest-");
+        String filePath = tempDir.resolve("workouts_oldest_" + System.nanoTime() + ".csv").toString();
+        FileStorage storage = new FileStorage(filePath);
+        storage.setAutoBackupEnabled(true);
+
+        byte[] oldest = null;
+        for (int i = 0; i <= BackupStore.MAX_VERSIONS; i++) {
+            storage.saveWorkoutObjects(List.of(new Workout("2/21/2026", "Squat", 100 + i, 5, 5, "Save " + i, false)),
+                    filePath);
+            if (i == 0) {
+                oldest = Files.readAllBytes(Path.of(filePath));
+            }
+        }
+        assertTrue(storage.awaitBackups(10, java.util.concurrent.TimeUnit.SECONDS), "Backups should finish");
+        List<BackupStore.BackupVersion> versions = storage.listBackups(filePath);
+        assertEquals(BackupStore.MAX_VERSIONS, versions.size(), "Every retained version should be listed");
+
+        // The safety backup rotates the oldest version out; the restore must have read it by then.
+        storage.restoreBackup(versions.get(0).getName(), filePath);
+        assertTrue(storage.awaitBackups(10, java.util.concurrent.TimeUnit.SECONDS), "Backups should finish");
+        assertTrue(java.util.Arrays.equals(oldest, Files.readAllBytes(Path.of(filePath))),
+                "The oldest version should restore before rotation drops it");
+        assertEquals(BackupStore.MAX_VERSIONS, storage.listBackups(filePath).size(),
+                "The safety backup should still be kept");
+    }
+
+    private static void testLoadCacheTracksFileIdentity() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-cache-");
+        Path csv = tempDir.resolve("workouts_cache.csv");
+        FileStorage storage = new FileStorage(csv.toString());
+        storage.setAutoBackupEnabled(false);
+        storage.saveWorkouts(List.of("2/21/2026,Squat,185.0,5,5,First,false"), csv.toString());
+
+        List<String> first = storage.loadWorkouts(csv.toString());
+        assertTrue(first == storage.loadWorkouts(csv.toString()), "Unchanged file should be served from the cache");
+        assertEquals(1L, storage.getLoadCacheHits(), "Second load should be a cache hit");
+
+        List<Workout> workouts = storage.loadWorkoutObjects(csv.toString());
+        workouts.get(0).setCompleted(true);
+        assertEquals(false, storage.loadWorkoutObjects(csv.toString()).get(0).isCompleted(),
+                "Edits to loaded workouts should not leak into the cache");
+
+        Files.write(csv, List.of(FileStorage.CSV_HEADER, "2/21/2026,Squat,185.0,5,5,First,false",
+                "2/22/2026,Bench Press,135.0,8,3,Edited elsewhere,true"));
+        assertEquals(2, storage.loadWorkouts(csv.toString()).size(), "Outside edits should change the file identity");
+
+        storage.saveWorkoutObjects(workouts, csv.toString());
+        assertEquals(true, storage.loadWorkoutObjects(csv.toString()).get(0).isCompleted(),
+                "Saves should invalidate cached results");
+    }
+
+    private static void testRollupsRefreshOnSave() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-rollups-");
+        Path csv = tempDir.resolve("workouts_rollups.csv");
+        FileStorage storage = new FileStorage(csv.toString());
+        storage.setAutoBackupEnabled(false);
+
+        List<Workout> workouts = new java.util.ArrayList<>(List.of(
+                new Workout("2/16/2026", "Squat", 100.0, 5, 5, "Monday", true),
+                new Workout("2/16/2026", "Bench Press", 100.0, 10, 1, "Monday", false),
+                new Workout("2/18/2026", "Squat", 100.0, 5, 2, "Wednesday", true),
+                new Workout("3/02/2026", "Row", 50.0, 10, 2, "March", true)));
+        storage.saveWorkoutObjects(workouts, csv.toString());
+        assertTrue(Files.exists(WorkoutRollups.pathFor(csv.toString())), "Saves should write rollups beside the data");
+
+        WorkoutRollups rollups = storage.loadRollups(csv.toString());
+        List<WorkoutRollups.PeriodSummary> weeks = rollups.getWeeks();
+        assertEquals(2, weeks.size(), "Workouts should fall into two weeks");
+        assertEquals(java.time.LocalDate.of(2026, 2, 16), weeks.get(0).getStart(), "Weeks should start on Monday");
+        assertEquals(3, weeks.get(0).getWorkouts(), "Week should count every workout");
+        assertEquals(2, weeks.get(0).getSessions(), "Week should count distinct training days");
+        assertEquals(4500.0, weeks.get(0).getVolume(), "Week should sum volume");
+        assertEquals(2.0 / 3, rollups.getMonths().get(0).getCompletionRate(), "Month should track completion");
+        assertEquals(3500.0, rollups.getTonnageByExercise(java.time.YearMonth.of(2026, 2)).get("Squat"),
+                "Month should sum volume per exercise");
+
+        workouts.add(new Workout("2/20/2026", "Deadlift", 200.0, 5, 1, "Friday", true));
+        storage.saveWorkoutObjects(workouts, csv.toString());
+        assertEquals(3, storage.loadRollups(csv.toString()).getWeeks().get(0).getSessions(),
+                "Rollups should be refreshed by the next save");
+        assertEquals(1, storage.loadRollups(csv.toString()).getWeeks(java.time.LocalDate.of(2026, 2, 18),
+                java.time.LocalDate.of(2026, 2, 28)).size(), "A range should include the week it starts in");
+
+        storage.appendWorkoutObjects(List.of(new Workout("2/21/2026", "Squat", 100.0, 1, 1, "Saturday", true),
+                new Workout("bad-date", "Squat", 100.0, 1, 1, "", true)));
+        Path stored = WorkoutRollups.pathFor(csv.toString());
+        java.nio.file.attribute.FileTime folded = Files.getLastModifiedTime(stored);
+        WorkoutRollups appended = storage.loadRollups(csv.toString());
+        assertEquals(folded, Files.getLastModifiedTime(stored), "Appends should leave the rollups current");
+        assertEquals(4, appended.getWeeks().get(0).getSessions(), "Appended rows should be folded in");
+        assertEquals(5, appended.getWeeks().get(0).getWorkouts(), "Invalid appended rows should be left out");
+
+        Files.write(csv, List.of(FileStorage.CSV_HEADER, "4/01/2026,Squat,185.0,5,5,Edited elsewhere,true"));
+        List<WorkoutRollups.PeriodSummary> months = storage.loadRollups(csv.toString()).getMonths();
+        assertEquals(1, months.size(), "Outside edits should rebuild the rollups");
+        assertEquals(java.time.LocalDate.of(2026, 4, 1), months.get(0).getStart(), "Rebuilt rollups should match");
+
+        Path partitioned = Files.createDirectory(tempDir.resolve("partitioned"));
+        PartitionedFileStorage partitions = new PartitionedFileStorage(partitioned.toString());
+        partitions.setAutoBackupEnabled(false);
+        partitions.saveWorkoutObjects(workouts);
+        WorkoutRollups merged = partitions.loadRollups();
+        assertEquals(2, merged.getMonths().size(), "Partition rollups should merge");
+        assertEquals(4, merged.getWeeks().get(0).getWorkouts(), "Merged weeks should match a single file");
+    }
+
+    private static void testCheckpointParsesOnlyTheTail() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-checkpoint-");
+        Path csv = tempDir.resolve("workouts_checkpoint.csv");
+        FileStorage storage = new FileStorage(csv.toString());
+        storage.setAutoBackupEnabled(false);
+        storage.setLoadCacheEnabled(false);
+        storage.setCheckpointEnabled(true);
+
+        List<Workout> workouts = List.of(
+                new Workout("2/1/2026", "Squat", 185.0, 5, 5, " Padded note ", true),
+                new Workout("2/3/2026", " Bench  Press", 135.0, 8, 3, "", false),
+                new Workout("2/5/2026", "Deadlift", 225.0, 5, 3, "Belt", true));
+        storage.saveWorkoutObjects(workouts, csv.toString());
+        Files.write(csv, List.of("2/7/2026,Row,95.0,10,3,Appended,false", "not-a-date,Row,1,1,1,,true"),
+                java.nio.file.StandardOpenOption.APPEND);
+
+        List<Workout> loaded = storage.loadWorkoutObjects(csv.toString());
+        assertEquals(3, storage.getLastCheckpointRows(), "Checkpointed rows should not be parsed again");
+        assertEquals(4, loaded.size(), "Rows appended after the checkpoint should be parsed");
+        assertEquals("Appended", loaded.get(3).getNote(), "Tail rows should follow the checkpoint");
+        storage.setCheckpointEnabled(false);
+        List<Workout> parsed = storage.loadWorkoutObjects(csv.toString());
+        storage.setCheckpointEnabled(true);
+        for (int i = 0; i < parsed.size(); i++) {
+            assertEquals(parsed.get(i).toCsvLine(), loaded.get(i).toCsvLine(), "Checkpoint should match a full parse");
+        }
+
+        storage.saveWorkouts(List.of("3/1/2026,Squat,200.0,3,5,Rewritten,true"), csv.toString());
+        assertEquals(1, storage.loadWorkoutObjects(csv.toString()).size(), "Rewritten files should be parsed fully");
+        assertEquals(0, storage.getLastCheckpointRows(), "Row saves should drop the old checkpoint");
+
+        storage.saveWorkoutObjects(workouts, csv.toString());
+        Path checkpoint = Path.of(csv + WorkoutCheckpoint.FILE_SUFFIX);
+        byte[] bytes = Files.readAllBytes(checkpoint);
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(checkpoint, bytes);
+        assertEquals(3, storage.loadWorkoutObjects(csv.toString()).size(), "Corrupt checkpoints should fall back");
+        assertEquals(0, storage.getLastCheckpointRows(), "Corrupt checkpoints should not be used");
+
+        // Same-length rewrites renamed into place keep the length; the file key catches them.
+        storage.saveWorkoutObjects(workouts, csv.toString());
+        String text = new String(Files.readAllBytes(csv), java.nio.charset.StandardCharsets.UTF_8);
+        Path rewritten = tempDir.resolve("rewritten.csv");
+        Files.write(rewritten, text.replace("185.0", "195.0").getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        Files.move(rewritten, csv, java.nio.file.StandardCopyOption.REPLACE_EXISTING,
+                java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+        assertEquals(195.0, storage.loadWorkoutObjects(csv.toString()).get(0).getWeight(),
+                "Renamed-in rewrites should not be served from the checkpoint");
+        assertEquals(0, storage.getLastCheckpointRows(), "Rewrites of the same length should fall back");
+
+        // In-place edits keep the file key too; one far before the end must still be caught.
+        List<Workout> many = new java.util.ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            many.add(new Workout("2/1/2026", "Squat", 185.0, 5, 5, "Row " + i, true));
+        }
+        storage.saveWorkoutObjects(many, csv.toString());
+        assertTrue(Files.size(csv) > 4 * 64 * 1024, "The edit should land well before the last 64 KiB");
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(csv,
+                java.nio.file.StandardOpenOption.WRITE)) {
+            byte[] header = (FileStorage.CSV_HEADER + System.lineSeparator() + "2/1/2026,Squat,1").getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            channel.write(java.nio.ByteBuffer.wrap("9".getBytes(java.nio.charset.StandardCharsets.UTF_8)),
+                    header.length);
+        }
+        assertEquals(195.0, storage.loadWorkoutObjects(csv.toString()).get(0).getWeight(),
+                "In-place edits should not be served from the checkpoint");
+        assertEquals(0, storage.getLastCheckpointRows(), "In-place edits of the same length should fall back");
+
+        storage.setAutoBackupEnabled(true);
+        storage.saveWorkoutObjects(workouts, csv.toString());
+        List<Workout> heavier = new java.util.ArrayList<>(storage.loadWorkoutObjects(csv.toString()));
+        heavier.set(0, new Workout("2/1/2026", "Squat", 105.0, 5, 5, " Padded note ", true));
+        storage.saveWorkoutObjects(heavier, csv.toString());
+        assertTrue(storage.awaitBackups(10, java.util.concurrent.TimeUnit.SECONDS), "Backups should finish");
+        List<BackupStore.BackupVersion> versions = storage.listBackups(csv.toString());
+        storage.restoreBackup(versions.get(versions.size() - 1).getName(), csv.toString());
+        assertTrue(storage.awaitBackups(10, java.util.concurrent.TimeUnit.SECONDS), "Backups should finish");
+        assertEquals(185.0, storage.loadWorkoutObjects(csv.toString()).get(0).getWeight(),
+                "Restores should not be served from the replaced file's checkpoint");
+        assertEquals(0, storage.getLastCheckpointRows(), "Restores should drop the checkpoint");
+    }
+
+    private static void testAppendAddsRowsWithoutRewriting() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-append-");
+        Path csv = tempDir.resolve("workouts_append.csv");
+        FileStorage storage = new FileStorage(csv.toString());
+        storage.setAutoBackupEnabled(false);
+        storage.setCheckpointEnabled(true);
+
+        FileStorage.OperationResult<Void> first = storage.appendWorkoutObjectsWithResult(List.of(
+                new Workout("2/1/2026", "Squat", 185.0, 5, 5, "First, batch", true),
+                new Workout("bad-date", "Squat", 185.0, 5, 5, "", true)), csv.toString());
+        assertEquals(1, first.getSuccessCount(), "Appends should apply the save rules");
+        assertEquals(FileStorage.CSV_HEADER, Files.readAllLines(csv).get(0), "A new file should get its header");
+
+        storage.saveWorkoutObjects(storage.loadWorkoutObjects(csv.toString()), csv.toString());
+        Files.write(csv, "2/2/2026,Row,95.0,10,3,No newline,false".getBytes(java.nio.charset.StandardCharsets.UTF_8),
+                java.nio.file.StandardOpenOption.APPEND);
+        storage.appendWorkoutObjects(List.of(new Workout("2/3/2026", "Bench Press", 135.0, 8, 3, "Later", false)));
+
+        List<Workout> loaded = storage.loadWorkoutObjects(csv.toString());
+        assertEquals(3, loaded.size(), "Appended rows should follow the saved ones");
+        assertEquals("First, batch", loaded.get(0).getNote(), "Appended notes should be escaped");
+        assertEquals("Later", loaded.get(2).getNote(), "Appends should start on a new line");
+        assertEquals(1, storage.getLastCheckpointRows(), "Appends should keep the checkpoint usable");
+    }
+
+    private static void testChannelWritersShareSpareBuffers() throws Exception {
+        Path tempDir = Files.createTempDirectory("workout-storage-writers-");
+        Path open = tempDir.resolve("open.txt");
+        Path first = tempDir.resolve("first.txt");
+        Path second = tempDir.resolve("second.txt");
+
+        ChannelFileWriter longLived = new ChannelFileWriter(open, 64);
+        longLived.write("kept ");
+        ChannelFileWriter closed = new ChannelFileWriter(first, 1024);
+        closed.write("first");
+        closed.close();
+        try (ChannelFileWriter reused = new ChannelFileWriter(second, 16)) {
+            reused.write("a line longer than sixteen bytes");
+        }
+        longLived.write("apart");
+        longLived.close();
+
+        assertEquals("kept apart", Files.readString(open), "An open writer should keep its own buffer");
+        assertEquals("first", Files.readString(first), "A closed writer should have written everything");
+        assertEquals("a line longer than sixteen bytes", Files.readString(second),
+                "A reused spare should write at the requested size");
+        try {
+            closed.write("late");
+            throw new AssertionError("Writing after close should fail");
+        } catch (java.io.IOException expected) {
+            assertEquals("first", Files.readString(first), "A closed writer should not write again");
+        }
+    }
+
     private static void assertEquals(Object expected, Object actual, String message) {
         if ((expected == null && actual != null) || (expected != null && !expected.equals(actual))) {
             throw new AssertionError(message + " Expected=" + expected + " Actual=" + actual);
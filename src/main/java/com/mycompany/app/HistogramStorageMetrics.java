@@ -0,0 +1,212 @@
+package com.mycompany.app;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe StorageMetrics that keeps latency histograms and throughput counters in memory.
+ * Histograms use power-of-two nanosecond buckets, so percentiles are accurate to within 2x
+ * and recording is a couple of uncontended adds.
+ */
+public class HistogramStorageMetrics implements StorageMetrics {
+
+    private final Histogram loadLatency = new Histogram();
+    private final Histogram saveLatency = new Histogram();
+    private final Histogram backupLatency = new Histogram();
+    private final Histogram readLockWait = new Histogram();
+    private final Histogram writeLockWait = new Histogram();
+    private final Histogram fileSync = new Histogram();
+    private final Histogram directorySync = new Histogram();
+    private final LongAdder rowsLoaded = new LongAdder();
+    private final LongAdder rowsSaved = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder backupBytes = new LongAdder();
+    private final LongAdder skippedRows = new LongAdder();
+    private final LongAdder backupFailures = new LongAdder();
+
+    @Override
+    public void recordLoad(long nanos, long rows, long bytes, int skipped) {
+        loadLatency.record(nanos);
+        rowsLoaded.add(rows);
+        bytesRead.add(bytes);
+        skippedRows.add(skipped);
+    }
+
+    @Override
+    public void recordSave(long nanos, long rows, long bytes, int skipped) {
+        saveLatency.record(nanos);
+        rowsSaved.add(rows);
+        bytesWritten.add(bytes);
+        skippedRows.add(skipped);
+    }
+
+    @Override
+    public void recordSync(long nanos, boolean directory) {
+        (directory ? directorySync : fileSync).record(nanos);
+    }
+
+    @Override
+    public void recordBackup(long nanos, long bytes, boolean success) {
+        backupLatency.record(nanos);
+        if (success) {
+            backupBytes.add(bytes);
+        } else {
+            backupFailures.increment();
+        }
+    }
+
+    @Override
+    public void recordLockWait(long nanos, boolean writeLock) {
+        (writeLock ? writeLockWait : readLockWait).record(nanos);
+    }
+
+    public Histogram getFileSync() {
+        return fileSync;
+    }
+
+    public Histogram getDirectorySync() {
+        return directorySync;
+    }
+
+    public Histogram getLoadLatency() {
+        return loadLatency;
+    }
+
+    public Histogram getSaveLatency() {
+        return saveLatency;
+    }
+
+    public Histogram getBackupLatency() {
+        return backupLatency;
+    }
+
+    public Histogram getReadLockWait() {
+        return readLockWait;
+    }
+
+    public Histogram getWriteLockWait() {
+        return writeLockWait;
+    }
+
+    public long getRowsLoaded() {
+        return rowsLoaded.sum();
+    }
+
+    public long getRowsSaved() {
+        return rowsSaved.sum();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    // Bytes copied by successful backups, kept apart from the bytes saves wrote
+    public long getBackupBytes() {
+        return backupBytes.sum();
+    }
+
+    public long getSkippedRows() {
+        return skippedRows.sum();
+    }
+
+    public long getBackupFailures() {
+        return backupFailures.sum();
+    }
+
+    // Rows loaded per second of time spent loading
+    public double getLoadRowsPerSecond() {
+        return perSecond(rowsLoaded.sum(), loadLatency.getTotalNanos());
+    }
+
+    // Rows saved per second of time spent saving
+    public double getSaveRowsPerSecond() {
+        return perSecond(rowsSaved.sum(), saveLatency.getTotalNanos());
+    }
+
+    private static double perSecond(long amount, long nanos) {
+        return nanos == 0 ? 0.0 : amount * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "load " + loadLatency + ", save " + saveLatency + ", backup " + backupLatency
+                + ", file sync " + fileSync + ", directory sync " + directorySync
+                + ", read lock wait " + readLockWait + ", write lock wait " + writeLockWait
+                + ", rows loaded=" + getRowsLoaded() + ", rows saved=" + getRowsSaved()
+                + ", bytes read=" + getBytesRead() + ", bytes written=" + getBytesWritten()
+                + ", backup bytes=" + getBackupBytes() + ", skipped=" + getSkippedRows();
+    }
+
+    /**
+     * Log-scale latency histogram: bucket i counts samples in [2^(i-1), 2^i) nanoseconds.
+     */
+    public static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[64];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets[64 - Long.numberOfLeadingZeros(value)].increment();
+            count.increment();
+            totalNanos.add(value);
+            maxNanos.accumulate(value);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public double getMeanNanos() {
+            long samples = count.sum();
+            return samples == 0 ? 0.0 : (double) totalNanos.sum() / samples;
+        }
+
+        // Upper bound of the bucket holding the given percentile (0-100)
+        public long getPercentileNanos(double percentile) {
+            long samples = count.sum();
+            if (samples == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(samples * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i].sum();
+                if (seen >= Math.max(1, rank)) {
+                    return i == 0 ? 0 : Math.min(getMaxNanos(), (1L << i) - 1);
+                }
+            }
+            return getMaxNanos();
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + getCount()
+                    + " mean=" + TimeUnit.NANOSECONDS.toMicros((long) getMeanNanos()) + "us"
+                    + " p50=" + TimeUnit.NANOSECONDS.toMicros(getPercentileNanos(50)) + "us"
+                    + " p99=" + TimeUnit.NANOSECONDS.toMicros(getPercentileNanos(99)) + "us"
+                    + " max=" + TimeUnit.NANOSECONDS.toMicros(getMaxNanos()) + "us";
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted full-text index over the notes and exercise names of a WorkoutLog. Text is
+ * split into lower-case runs of letters and digits, so "Shoulder pain, new PR!" indexes
+ * the terms shoulder, pain, new and pr. The term dictionary is sorted, so a prefix query
+ * reads one contiguous range of it; an AND query intersects postings starting from the
+ * shortest list. Results come back in log order.
+ *
+ * Like WorkoutIndex, the index subscribes to the log and is updated on every add and
+ * remove, and its postings hold the Workout objects themselves, matched by identity; a
+ * ColumnarWorkoutLog, which hands out fresh views, is rejected. It can also be stored
+ * beside the data file ({@value #FILE_SUFFIX}) after a save, so that the next start
+ * opens it from there instead of re-tokenizing every note.
+ */
+public class NoteIndex implements WorkoutLogListener {
+
+    static final String FILE_SUFFIX = ".notes";
+    private static final String HEADER = "notes v1";
+
+    private final WorkoutLog log;
+    private final TreeMap<String, Set<Workout>> postings = new TreeMap<>();
+    // Position of each indexed workout in add order, which is log order.
+    private final Map<Workout, Long> sequence = new IdentityHashMap<>();
+    private long nextSequence;
+
+    // Index everything already in the log, then follow its edits; edits in between wait for us.
+    public NoteIndex(WorkoutLog log) {
+        this(log, null, 0);
+    }
+
+    // stored was read for a log of storedRows workouts; it is ignored if the log has changed since.
+    private NoteIndex(WorkoutLog log, Map<String, int[]> stored, int storedRows) {
+        if (log instanceof ColumnarWorkoutLog) {
+            throw new IllegalArgumentException("NoteIndex needs a log that stores Workout objects");
+        }
+        this.log = log;
+        synchronized (this) {
+            List<Workout> workouts = log.subscribe(this);
+            if (stored == null || workouts.size() != storedRows) {
+                for (Workout workout : workouts) {
+                    insert(workout);
+                }
+            } else {
+                for (Workout workout : workouts) {
+                    sequence.put(workout, nextSequence++);
+                }
+                for (Map.Entry<String, int[]> entry : stored.entrySet()) {
+                    Set<Workout> ids = newPostings();
+                    for (int ordinal : entry.getValue()) {
+                        ids.add(workouts.get(ordinal));
+                    }
+                    postings.put(entry.getKey(), ids);
+                }
+            }
+        }
+    }
+
+    /**
+     * Index a log just loaded from dataFilePath, reading the stored index when it was saved
+     * for the file's current contents and tokenizing the notes when it is missing or stale.
+     */
+    public static NoteIndex open(WorkoutLog log, String dataFilePath) {
+        int rows = log.getTotalWorkouts();
+        return new NoteIndex(log, read(pathFor(dataFilePath), Path.of(dataFilePath), rows), rows);
+    }
+
+    // Stop following the log; the index keeps its current contents.
+    public void detach() {
+        log.removeListener(this);
+    }
+
+    @Override
+    public synchronized void workoutAdded(int index, Workout workout) {
+        insert(workout);
+    }
+
+    @Override
+    public synchronized void workoutRemoved(int index, Workout workout) {
+        if (sequence.remove(workout) == null) {
+            return;
+        }
+        for (String term : termsOf(workout)) {
+            Set<Workout> ids = postings.get(term);
+            if (ids != null && ids.remove(workout) && ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    // Workouts whose note or exercise contains every term of the text, in log order.
+    public synchronized List<Workout> find(String text) {
+        List<Set<Workout>> lists = new ArrayList<>();
+        for (String term : tokenize(text)) {
+            Set<Workout> ids = postings.get(term);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        return intersect(lists);
+    }
+
+    // Workouts with any term starting with the prefix, in log order.
+    public synchronized List<Workout> findPrefix(String prefix) {
+        List<String> terms = tokenize(prefix);
+        if (terms.size() != 1) {
+            return terms.isEmpty() ? Collections.emptyList() : find(prefix);
+        }
+        return inLogOrder(withPrefix(terms.get(0)));
+    }
+
+    /**
+     * Workouts matching every word of the query: a word ending in '*' matches terms with that
+     * prefix, any other word must appear as a term. "shoulder pa*" finds notes mentioning
+     * shoulder together with pain, painful or pause.
+     */
+    public synchronized List<Workout> search(String query) {
+        List<Set<Workout>> lists = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            if (word.endsWith("*")) {
+                List<String> terms = tokenize(word);
+                if (terms.isEmpty()) {
+                    continue;
+                }
+                for (int i = 0; i < terms.size() - 1; i++) {
+                    lists.add(postings.getOrDefault(terms.get(i), Collections.emptySet()));
+                }
+                lists.add(withPrefix(terms.get(terms.size() - 1)));
+            } else {
+                for (String term : tokenize(word)) {
+                    lists.add(postings.getOrDefault(term, Collections.emptySet()));
+                }
+            }
+        }
+        return intersect(lists);
+    }
+
+    // Number of distinct terms in the index.
+    public synchronized int getTermCount() {
+        return postings.size();
+    }
+
+    /**
+     * Store the index beside dataFilePath. Call it right after the log's workouts were saved
+     * to that file with nothing skipped, so row i of the file is workout i of the log; the
+     * index is stamped with the file's size and modification time and ignored by open()
+     * once the file changes. A log holding the same Workout instance twice has no one row
+     * per posting, so nothing is stored for it and the next open() re-tokenizes.
+     */
+    public void save(String dataFilePath) throws IOException {
+        Path data = Path.of(dataFilePath);
+        Path path = pathFor(dataFilePath);
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            synchronized (this) {
+                List<Workout> workouts = log.getAllWorkouts();
+                Map<Workout, Integer> ordinals = new IdentityHashMap<>(workouts.size() * 2);
+                for (int i = 0; i < workouts.size(); i++) {
+                    if (ordinals.put(workouts.get(i), i) != null) {
+                        Files.deleteIfExists(path);
+                        return;
+                    }
+                }
+                try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    CsvEncoder row = new CsvEncoder();
+                    writeRow(out, row.reset().field(HEADER).field(Long.toString(Files.size(data)))
+                            .field(Long.toString(Files.getLastModifiedTime(data).toMillis())).field(workouts.size()));
+                    StringBuilder list = new StringBuilder();
+                    for (Map.Entry<String, Set<Workout>> entry : postings.entrySet()) {
+                        // Ordinals ascend, so store the gaps between them; most are small.
+                        list.setLength(0);
+                        int previous = 0;
+                        for (Workout workout : inLogOrder(entry.getValue())) {
+                            int ordinal = ordinals.get(workout);
+                            list.append(list.length() == 0 ? "" : " ").append(ordinal - previous);
+                            previous = ordinal;
+                        }
+                        writeRow(out, row.reset().field(entry.getKey()).field(list));
+                    }
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static Path pathFor(String dataFilePath) {
+        return Path.of(dataFilePath + FILE_SUFFIX);
+    }
+
+    // Lower-case runs of letters and digits, in order of appearance.
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // Term to ordinals for a file of the given identity, or null when missing, stale or corrupt.
+    private static Map<String, int[]> read(Path path, Path data, int rows) {
+        if (!Files.exists(path) || !Files.exists(data)) {
+            return null;
+        }
+        Map<String, int[]> stored = new TreeMap<>();
+        try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            CsvTokenizer tokens = new CsvTokenizer();
+            if (!tokens.readLine(in) || tokens.fieldCount() != 4 || !tokens.field(0).equals(HEADER)
+                    || Long.parseLong(tokens.field(1)) != Files.size(data)
+                    || Long.parseLong(tokens.field(2)) != Files.getLastModifiedTime(data).toMillis()
+                    || tokens.intField(3) != rows) {
+                return null;
+            }
+            while (tokens.readLine(in)) {
+                String[] gaps = tokens.field(1).split(" ");
+                int[] ordinals = new int[gaps.length];
+                int ordinal = 0;
+                for (int i = 0; i < gaps.length; i++) {
+                    ordinal += Integer.parseInt(gaps[i]);
+                    if (ordinal < 0 || ordinal >= rows) {
+                        return null;
+                    }
+                    ordinals[i] = ordinal;
+                }
+                stored.put(tokens.field(0), ordinals);
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+        return stored;
+    }
+
+    private void insert(Workout workout) {
+        sequence.put(workout, nextSequence++);
+        for (String term : termsOf(workout)) {
+            postings.computeIfAbsent(term, t -> newPostings()).add(workout);
+        }
+    }
+
+    private static List<String> termsOf(Workout workout) {
+        List<String> terms = tokenize(workout.getNote());
+        terms.addAll(tokenize(workout.getExercise()));
+        return terms;
+    }
+
+    private Set<Workout> withPrefix(String prefix) {
+        Set<Workout> matches = newPostings();
+        for (Set<Workout> ids : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            matches.addAll(ids);
+        }
+        return matches;
+    }
+
+    // Walk the shortest list and probe the others, so the cost follows the rarest term.
+    private List<Workout> intersect(List<Set<Workout>> lists) {
+        if (lists.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        List<Workout> matches = new ArrayList<>();
+        for (Workout workout : lists.get(0)) {
+            boolean all = true;
+            for (int i = 1; i < lists.size() && all; i++) {
+                all = lists.get(i).contains(workout);
+            }
+            if (all) {
+                matches.add(workout);
+            }
+        }
+        return inLogOrder(matches);
+    }
+
+    private List<Workout> inLogOrder(Iterable<Workout> workouts) {
+        List<Workout> ordered = new ArrayList<>();
+        for (Workout workout : workouts) {
+            ordered.add(workout);
+        }
+        ordered.sort((a, b) -> Long.compare(sequence.get(a), sequence.get(b)));
+        return ordered;
+    }
+
+    private static Set<Workout> newPostings() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private static void writeRow(Writer out, CsvEncoder row) throws IOException {
+        row.writeTo(out);
+        out.write('\n');
+    }
+}
@@ -0,0 +1,162 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a workout CSV by memory-mapping it and parsing newline-aligned chunks in parallel.
+ *
+ * Rows never span lines (the writer replaces CR/LF inside fields and the sequential
+ * loader is line based), so every newline is a safe split point and quoted fields only
+ * matter within a line. Chunk results are merged in file order so counts and line-numbered
+ * errors match FileStorage.loadWorkoutsWithResult.
+ */
+final class ParallelCsvLoader {
+
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final long MAX_CHUNK_BYTES = 64L << 20;
+    private static final int SCAN_WINDOW = 64 * 1024;
+
+    private final FileStorage storage;
+    private final ForkJoinPool pool;
+
+    ParallelCsvLoader(FileStorage storage, ForkJoinPool pool) {
+        this.storage = storage;
+        this.pool = pool;
+    }
+
+    FileStorage.OperationResult<List<Workout>> load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<long[]> chunks = split(channel);
+            List<Callable<ChunkResult>> tasks = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                long[] range = chunks.get(i);
+                boolean first = i == 0;
+                tasks.add(() -> parseChunk(channel, range[0], range[1], first));
+            }
+
+            List<Workout> workouts = new ArrayList<>();
+            List<String> errors = new ArrayList<>();
+            int processedCount = 0;
+            int skippedCount = 0;
+            int lineOffset = 0;
+
+            for (Future<ChunkResult> future : pool.invokeAll(tasks)) {
+                ChunkResult chunk = future.get();
+                workouts.addAll(chunk.workouts);
+                for (int i = 0; i < chunk.errorLines.size(); i++) {
+                    errors.add("Invalid entry at line " + (lineOffset + chunk.errorLines.get(i)) + ": "
+                            + chunk.errorText.get(i));
+                }
+                processedCount += chunk.processedCount;
+                skippedCount += chunk.errorLines.size();
+                lineOffset += chunk.lineCount;
+            }
+
+            return new FileStorage.OperationResult<>(workouts, processedCount, workouts.size(), skippedCount, errors);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + path, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Parallel load failed: " + cause, cause);
+        }
+    }
+
+    // Cut the file into [start, end) ranges that each finish just after a newline.
+    private List<long[]> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long target = Math.max(MIN_CHUNK_BYTES,
+                Math.min(MAX_CHUNK_BYTES, size / (pool.getParallelism() * 4L) + 1));
+
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer window = ByteBuffer.allocate(SCAN_WINDOW);
+        long start = 0;
+        while (start < size) {
+            long end = start + target >= size ? size : nextLineStart(channel, start + target, size, window);
+            chunks.add(new long[] {start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer window) throws IOException {
+        long position = from;
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private ChunkResult parseChunk(FileChannel channel, long start, long end, boolean firstChunk) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        ChunkResult result = new ChunkResult();
+        CsvTokenizer tokens = new CsvTokenizer();
+        int limit = buffer.limit();
+        int lineStart = 0;
+
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n' && buffer.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            // Same terminators as BufferedReader.readLine: \n, \r or \r\n.
+            int next = lineEnd + 1;
+            if (lineEnd < limit && buffer.get(lineEnd) == '\r' && next < limit && buffer.get(next) == '\n') {
+                next++;
+            }
+
+            tokens.tokenize(buffer, lineStart, lineEnd);
+            result.lineCount++;
+            lineStart = next;
+
+            if (firstChunk && result.lineCount == 1 && tokens.lineEquals(FileStorage.CSV_HEADER)) {
+                continue;
+            }
+            if (tokens.isBlankLine()) {
+                continue;
+            }
+
+            result.processedCount++;
+            Workout workout = storage.toWorkout(tokens);
+            if (workout != null) {
+                result.workouts.add(workout);
+            } else {
+                result.errorLines.add(result.lineCount);
+                result.errorText.add(tokens.line());
+            }
+        }
+        return result;
+    }
+
+    private static final class ChunkResult {
+        private final List<Workout> workouts = new ArrayList<>();
+        private final List<Integer> errorLines = new ArrayList<>();
+        private final List<String> errorText = new ArrayList<>();
+        private int processedCount;
+        private int lineCount;
+    }
+}
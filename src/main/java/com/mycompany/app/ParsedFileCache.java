@@ -0,0 +1,122 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded LRU cache of parsed load results, keyed by path.
+ *
+ * Each entry remembers the identity of the file it was parsed from: size, modification
+ * time and, where the file system has one, the file key (inode). A lookup stats the file
+ * and only returns the entry while all three still match, so a file replaced by a save's
+ * rename or edited by another process is reparsed. Entries are also invalidated outright
+ * when FileStorage writes or deletes the path. The cache is bounded both by entry count
+ * and by the total rows held.
+ */
+final class ParsedFileCache<V> {
+
+    private final int maxEntries;
+    private final long maxRows;
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedRows;
+    private long hits;
+
+    ParsedFileCache(int maxEntries, long maxRows) {
+        this.maxEntries = maxEntries;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Identity of a file at one moment. Take it before reading the file, so a change made
+     * while the file is being parsed shows up as a mismatch on the next lookup.
+     */
+    static final class FileIdentity {
+        private final long size;
+        private final long modifiedNanos;
+        private final Object fileKey;
+
+        private FileIdentity(BasicFileAttributes attributes) {
+            this.size = attributes.size();
+            this.modifiedNanos = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+            this.fileKey = attributes.fileKey();
+        }
+
+        // Null when the file cannot be read, which makes the load uncacheable.
+        static FileIdentity of(String filePath) {
+            try {
+                return new FileIdentity(Files.readAttributes(Paths.get(filePath), BasicFileAttributes.class));
+            } catch (IOException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private boolean sameAs(FileIdentity other) {
+            return other != null && size == other.size && modifiedNanos == other.modifiedNanos
+                    && Objects.equals(fileKey, other.fileKey);
+        }
+    }
+
+    // Result of an earlier load of the path if the file is unchanged since, else null.
+    synchronized V get(String filePath, FileIdentity identity) {
+        Entry<V> entry = entries.get(normalize(filePath));
+        if (entry != null && entry.identity.sameAs(identity)) {
+            hits++;
+            return entry.value;
+        }
+        return null;
+    }
+
+    synchronized void put(String filePath, FileIdentity identity, V value, int rows) {
+        if (identity == null || rows > maxRows) {
+            return;
+        }
+        Entry<V> previous = entries.put(normalize(filePath), new Entry<>(identity, value, rows));
+        if (previous != null) {
+            cachedRows -= previous.rows;
+        }
+        cachedRows += rows;
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || cachedRows > maxRows) {
+            cachedRows -= eldest.next().rows;
+            eldest.remove();
+        }
+    }
+
+    synchronized void invalidate(String filePath) {
+        Entry<V> removed = entries.remove(normalize(filePath));
+        if (removed != null) {
+            cachedRows -= removed.rows;
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        cachedRows = 0;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    private static String normalize(String filePath) {
+        return Paths.get(filePath).toAbsolutePath().normalize().toString();
+    }
+
+    private static final class Entry<V> {
+        private final FileIdentity identity;
+        private final V value;
+        private final int rows;
+
+        private Entry(FileIdentity identity, V value, int rows) {
+            this.identity = identity;
+            this.value = value;
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * FileStorage that keeps history as one file per calendar month under a directory, plus a
+ * small manifest recording each month's row count, first and last day and a content hash.
+ *
+ * Typed saves and loads whose path is a directory use the partitioned layout; any other
+ * path is handled by FileStorage as before. A save groups workouts by month and rewrites
+ * (and backs up) only the months whose hash changed, so editing today's workout touches
+ * one small file. A range load opens only the months that overlap the range.
+ *
+ * Workouts come back grouped by month, oldest first, keeping their saved order within a
+ * month; rows with invalid dates are reported and never stored.
+ */
+public class PartitionedFileStorage extends FileStorage {
+
+    static final String MANIFEST_FILENAME = "manifest.csv";
+    private static final String MANIFEST_HEADER = "month,file,rows,firstDay,lastDay,hash";
+    private static final String PARTITION_PREFIX = "workouts-";
+    private static final Pattern PARTITION_NAME = Pattern.compile("workouts-(\\d{4}-\\d{2})\\.(csv|bin)");
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Object manifestLock = new Object();
+    private int lastRewrittenCount;
+
+    public PartitionedFileStorage(String directory) {
+        super(directory);
+        try {
+            Files.createDirectories(Paths.get(directory));
+        } catch (IOException e) {
+            System.err.println("[FileStorage] Could not create partition directory: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One month of the manifest. The hash covers the stored values of every row in order,
+     * so an unchanged month is recognised without reading its file.
+     */
+    private static final class Partition {
+        private final YearMonth month;
+        private final String fileName;
+        private final int rows;
+        private final int firstDay;
+        private final int lastDay;
+        private final long hash;
+
+        Partition(YearMonth month, String fileName, int rows, int firstDay, int lastDay, long hash) {
+            this.month = month;
+            this.fileName = fileName;
+            this.rows = rows;
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+            this.hash = hash;
+        }
+
+        boolean overlaps(int fromDay, int toDay) {
+            return firstDay <= toDay && lastDay >= fromDay;
+        }
+    }
+
+    @Override
+    public OperationResult<Void> saveWorkoutObjectsWithResult(List<Workout> workouts, String filePath)
+            throws FileStorageException {
+        if (workouts == null) {
+            throw new FileStorageException("Cannot save null workout list");
+        }
+        if (!Files.isDirectory(Paths.get(filePath))) {
+            return super.saveWorkoutObjectsWithResult(workouts, filePath);
+        }
+        return savePartitions(workouts, Paths.get(filePath));
+    }
+
+    @Override
+    public List<Workout> loadWorkoutObjects(String filePath) throws FileStorageException {
+        if (!Files.isDirectory(Paths.get(filePath))) {
+            return super.loadWorkoutObjects(filePath);
+        }
+        return query(filePath, new WorkoutQuery()).getData();
+    }
+
+    // Workouts dated from..to inclusive, from the partitions under the current path.
+    public List<Workout> loadWorkoutObjects(LocalDate from, LocalDate to) throws FileStorageException {
+        return loadRangeWithResult(from, to).getData();
+    }
+
+    public OperationResult<List<Workout>> loadRangeWithResult(LocalDate from, LocalDate to)
+            throws FileStorageException {
+        if (from == null || to == null) {
+            throw new FileStorageException("Date range bounds cannot be null");
+        }
+        return query(getCurrentFilePath(), new WorkoutQuery().between(from, to));
+    }
+
+    // Each partition keeps its own rollups, refreshed only when that month is rewritten.
+    @Override
+    public WorkoutRollups loadRollups(String filePath) throws FileStorageException {
+        if (!Files.isDirectory(Paths.get(filePath))) {
+            return super.loadRollups(filePath);
+        }
+        Path directory = Paths.get(filePath);
+        List<Partition> partitions;
+        synchronized (manifestLock) {
+            partitions = new ArrayList<>(readManifest(directory).values());
+        }
+        WorkoutRollups rollups = new WorkoutRollups();
+        for (Partition partition : partitions) {
+            rollups.merge(super.loadRollups(directory.resolve(partition.fileName).toString()));
+        }
+        return rollups;
+    }
+
+    // Number of partition files written by the most recent partitioned save.
+    public int getLastRewrittenCount() {
+        synchronized (manifestLock) {
+            return lastRewrittenCount;
+        }
+    }
+
+    private OperationResult<Void> savePartitions(List<Workout> workouts, Path directory) throws FileStorageException {
+        synchronized (manifestLock) {
+            List<String> errors = new ArrayList<>();
+            int processedCount = 0;
+            Map<YearMonth, List<Workout>> months = new TreeMap<>();
+            for (int i = 0; i < workouts.size(); i++) {
+                Workout workout = workouts.get(i);
+                if (workout == null) {
+                    continue;
+                }
+                processedCount++;
+                Workout clean = sanitizeForStorage(workout);
+                if (clean == null) {
+                    errors.add("Skipped invalid entry at index " + i + ": " + workout.toCsvLine());
+                    continue;
+                }
+                YearMonth month = YearMonth.from(LocalDate.ofEpochDay(clean.getEpochDay()));
+                months.computeIfAbsent(month, m -> new ArrayList<>()).add(clean);
+            }
+
+            Map<YearMonth, Partition> previous = readManifest(directory);
+            Map<YearMonth, Partition> current = new TreeMap<>();
+            String extension = getStorageFormat() == StorageFormat.BINARY ? ".bin" : ".csv";
+            int rewritten = 0;
+            List<String> obsolete = new ArrayList<>();
+            for (Map.Entry<YearMonth, List<Workout>> entry : months.entrySet()) {
+                YearMonth month = entry.getKey();
+                List<Workout> rows = entry.getValue();
+                Partition partition = describe(month, PARTITION_PREFIX + month + extension, rows);
+                Partition old = previous.get(month);
+                Path file = directory.resolve(partition.fileName);
+                if (old == null || old.hash != partition.hash || !old.fileName.equals(partition.fileName)
+                        || !Files.exists(file)) {
+                    try {
+                        OperationResult<Void> saved = super.saveWorkoutObjectsWithResult(rows, file.toString());
+                        errors.addAll(saved.getErrors());
+                    } catch (FileStorageException | RuntimeException e) {
+                        recoverManifest(directory, previous, current, month, file);
+                        throw e;
+                    }
+                    rewritten++;
+                    if (old != null && !old.fileName.equals(partition.fileName)) {
+                        obsolete.add(directory.resolve(old.fileName).toString());
+                    }
+                }
+                current.put(month, partition);
+            }
+
+            // Months that no longer have any workouts lose their file, after a backup.
+            for (Partition old : previous.values()) {
+                if (!current.containsKey(old.month)) {
+                    String file = directory.resolve(old.fileName).toString();
+                    if (isAutoBackupEnabled()) {
+                        createBackup(file);
+                    }
+                    obsolete.add(file);
+                }
+            }
+
+            // Delete only once the manifest no longer lists them, so a failure in between
+            // leaves stray files rather than a manifest naming files that are gone.
+            try {
+                writeManifest(directory, current);
+            } catch (FileStorageException e) {
+                invalidateManifest(directory);
+                throw e;
+            }
+            for (String file : obsolete) {
+                deleteFile(file);
+            }
+            lastRewrittenCount = rewritten;
+            int skippedCount = errors.size();
+            return new OperationResult<>(null, processedCount, processedCount - skippedCount, skippedCount, errors);
+        }
+    }
+
+    /**
+     * A partition save failed partway: record the months already written with their new
+     * contents and the months not reached yet as they were, and list the failed month with
+     * unknown contents so the next save rewrites it and range loads cover the whole month.
+     * Should even that fail, drop the manifest so loads fall back to the partition files.
+     */
+    private void recoverManifest(Path directory, Map<YearMonth, Partition> previous,
+            Map<YearMonth, Partition> written, YearMonth failed, Path failedFile) {
+        Map<YearMonth, Partition> partitions = new TreeMap<>(previous);
+        partitions.putAll(written);
+        Partition old = previous.get(failed);
+        if (old == null || old.fileName.equals(failedFile.getFileName().toString())) {
+            partitions.remove(failed);
+            if (Files.exists(failedFile)) {
+                partitions.put(failed, unknown(failed, failedFile.getFileName().toString()));
+            }
+        }
+        try {
+            writeManifest(directory, partitions);
+        } catch (FileStorageException e) {
+            invalidateManifest(directory);
+        }
+    }
+
+    private static void invalidateManifest(Path directory) {
+        try {
+            Files.deleteIfExists(directory.resolve(MANIFEST_FILENAME));
+        } catch (IOException e) {
+            System.err.println("[FileStorage] Partition manifest may be stale: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the query over the months its date range overlaps, oldest first, stopping once
+     * the limit is reached; each month is scanned with FileStorage's pushdown.
+     */
+    @Override
+    public OperationResult<List<Workout>> query(String filePath, WorkoutQuery query) throws FileStorageException {
+        if (query == null) {
+            throw new FileStorageException("Cannot run a null query");
+        }
+        if (!Files.isDirectory(Paths.get(filePath))) {
+            return super.query(filePath, query);
+        }
+
+        Path directory = Paths.get(filePath);
+        List<Partition> selected = new ArrayList<>();
+        synchronized (manifestLock) {
+            for (Partition partition : readManifest(directory).values()) {
+                if (partition.overlaps(query.getFromEpochDay(), query.getToEpochDay())) {
+                    selected.add(partition);
+                }
+            }
+        }
+
+        List<Workout> matches = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int processedCount = 0;
+        int skippedCount = 0;
+        for (Partition partition : selected) {
+            if (matches.size() >= query.getLimit()) {
+                break;
+            }
+            Path file = directory.resolve(partition.fileName);
+            if (!Files.exists(file)) {
+                throw new FileStorageException("Partition listed in manifest is missing: " + file);
+            }
+            OperationResult<List<Workout>> result =
+                    super.query(file.toString(), query.withLimit(query.getLimit() - matches.size()));
+            matches.addAll(result.getData());
+            processedCount += result.getProcessedCount();
+            skippedCount += result.getSkippedCount();
+            errors.addAll(result.getErrors());
+        }
+        return new OperationResult<>(matches, processedCount, matches.size(), skippedCount, errors);
+    }
+
+    private Map<YearMonth, Partition> readManifest(Path directory) throws FileStorageException {
+        Path manifest = directory.resolve(MANIFEST_FILENAME);
+        Map<YearMonth, Partition> partitions = new TreeMap<>();
+        if (!Files.exists(manifest)) {
+            return scanPartitions(directory);
+        }
+        try {
+            List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+            for (int i = 1; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 6) {
+                    throw new FileStorageException("Corrupt partition manifest line " + (i + 1) + ": " + line);
+                }
+                YearMonth month = YearMonth.parse(fields[0]);
+                partitions.put(month, new Partition(month, fields[1], Integer.parseInt(fields[2]),
+                        Integer.parseInt(fields[3]), Integer.parseInt(fields[4]), Long.parseUnsignedLong(fields[5], 16)));
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to read partition manifest: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            throw new FileStorageException("Corrupt partition manifest: " + e.getMessage(), e);
+        }
+        return partitions;
+    }
+
+    // Without a manifest, fall back to the file names; unknown hashes make the next save rewrite them.
+    private static Map<YearMonth, Partition> scanPartitions(Path directory) throws FileStorageException {
+        Map<YearMonth, Partition> partitions = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PARTITION_PREFIX + "*")) {
+            for (Path file : files) {
+                Matcher matcher = PARTITION_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    YearMonth month = YearMonth.parse(matcher.group(1));
+                    partitions.put(month, unknown(month, file.getFileName().toString()));
+                }
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to list partitions: " + e.getMessage(), e);
+        }
+        return partitions;
+    }
+
+    // A partition whose contents are not known: it spans the whole month and matches no hash.
+    private static Partition unknown(YearMonth month, String fileName) {
+        return new Partition(month, fileName, -1, (int) month.atDay(1).toEpochDay(),
+                (int) month.atEndOfMonth().toEpochDay(), 0);
+    }
+
+    private void writeManifest(Path directory, Map<YearMonth, Partition> partitions) throws FileStorageException {
+        List<String> lines = new ArrayList<>(partitions.size() + 1);
+        lines.add(MANIFEST_HEADER);
+        for (Partition p : partitions.values()) {
+            lines.add(p.month + "," + p.fileName + "," + p.rows + "," + p.firstDay + "," + p.lastDay + ","
+                    + Long.toHexString(p.hash));
+        }
+        Path manifest = directory.resolve(MANIFEST_FILENAME);
+        Path temp = directory.resolve(MANIFEST_FILENAME + ".tmp");
+        try {
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteFile(temp.toString());
+            throw new FileStorageException("Failed to write partition manifest: " + e.getMessage(), e);
+        }
+    }
+
+    // FNV-1a over each row's stored values, in order.
+    private static Partition describe(YearMonth month, String fileName, List<Workout> rows) {
+        long hash = FNV_OFFSET;
+        int firstDay = Integer.MAX_VALUE;
+        int lastDay = Integer.MIN_VALUE;
+        for (Workout w : rows) {
+            hash = mix(hash, w.getDate());
+            hash = mix(hash, w.getExercise());
+            hash = mix(hash, Double.doubleToLongBits(w.getWeight()));
+            hash = mix(hash, w.getReps());
+            hash = mix(hash, w.getSets());
+            hash = mix(hash, w.getNote());
+            hash = mix(hash, w.isCompleted() ? 1 : 0);
+            firstDay = Math.min(firstDay, w.getEpochDay());
+            lastDay = Math.max(lastDay, w.getEpochDay());
+        }
+        return new Partition(month, fileName, rows.size(), firstDay, lastDay, hash);
+    }
+
+    private static long mix(long hash, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+        }
+        return (hash ^ 0xFFFF) * FNV_PRIME; // field terminator, so "ab"+"c" differs from "a"+"bc"
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
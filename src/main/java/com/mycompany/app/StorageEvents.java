@@ -0,0 +1,99 @@
+package com.mycompany.app;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder events emitted by FileStorage. When no recording has them enabled,
+ * begin/end/shouldCommit are near no-ops and the fields are never filled in.
+ */
+final class StorageEvents {
+
+    private StorageEvents() {
+    }
+
+    @Name("com.mycompany.app.WorkoutLoad")
+    @Label("Workout Load")
+    @Category({"Workout", "Storage"})
+    @Description("Workout file read and parsed")
+    @StackTrace(false)
+    static final class Load extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Rows")
+        long rows;
+
+        @Label("Skipped Rows")
+        int skippedRows;
+
+        @Label("Bytes Read")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.mycompany.app.WorkoutSave")
+    @Label("Workout Save")
+    @Category({"Workout", "Storage"})
+    @Description("Workout file written")
+    @StackTrace(false)
+    static final class Save extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Rows")
+        long rows;
+
+        @Label("Skipped Rows")
+        int skippedRows;
+
+        @Label("Bytes Written")
+        @DataAmount
+        long bytes;
+
+        @Label("Durability")
+        String durability;
+
+        @Label("File Sync Duration")
+        @Timespan
+        long fileSyncDuration;
+
+        @Label("Directory Sync Duration")
+        @Timespan
+        long directorySyncDuration;
+    }
+
+    @Name("com.mycompany.app.WorkoutBackup")
+    @Label("Workout Backup")
+    @Category({"Workout", "Storage"})
+    @Description("Backup copy of a workout file")
+    @StackTrace(false)
+    static final class Backup extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Succeeded")
+        boolean success;
+    }
+
+    @Name("com.mycompany.app.WorkoutLockWait")
+    @Label("Workout Storage Lock Wait")
+    @Category({"Workout", "Storage"})
+    @Description("Time spent waiting for the FileStorage read/write lock")
+    @Threshold("1 ms")
+    static final class LockWait extends Event {
+        @Label("Write Lock")
+        boolean writeLock;
+    }
+}
@@ -0,0 +1,31 @@
+package com.mycompany.app;
+
+/**
+ * Pluggable sink for FileStorage telemetry. Every callback defaults to a no-op, so an
+ * implementation only overrides what it needs; FileStorage uses NOOP until one is set.
+ */
+public interface StorageMetrics {
+
+    StorageMetrics NOOP = new StorageMetrics() {
+    };
+
+    // A load finished: wall time, rows returned, bytes read and rows skipped as invalid
+    default void recordLoad(long nanos, long rows, long bytes, int skippedRows) {
+    }
+
+    // A save finished: wall time, rows written, bytes written and rows skipped as invalid
+    default void recordSave(long nanos, long rows, long bytes, int skippedRows) {
+    }
+
+    // A save forced its file (directory=false) or the directory entry (directory=true) to disk
+    default void recordSync(long nanos, boolean directory) {
+    }
+
+    // A backup attempt finished: wall time, bytes copied and whether it succeeded
+    default void recordBackup(long nanos, long bytes, boolean success) {
+    }
+
+    // Time spent waiting to acquire the storage read or write lock
+    default void recordLockWait(long nanos, boolean writeLock) {
+    }
+}
@@ -1,21 +1,26 @@
 package com.mycompany.app; // Package for the workout app
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class Workout { // Represents one workout entry
 
-    private String date; // Workout date
+    private String date; // Workout date as entered (kept for round-tripping)
+    private int epochDay; // Workout date as days since 1970-01-01, or DateCodec.INVALID
     private String exercise; // Exercise name
+    private int exerciseId = ExerciseDictionary.UNKNOWN; // Interned exercise id, resolved on first use
     private double weight; // Weight used
     private int reps; // Number of reps
     private int sets; // Number of sets
     private String note; // Extra notes
-    private boolean completed; // Whether workout is done
+    private volatile boolean completed; // Whether workout is done (volatile: shared across threads)
 
     // Constructor sets all workout details
     public Workout(String date, String exercise, double weight, int reps, int sets, String note, boolean completed) {
+        this(date, DateCodec.toEpochDay(date == null ? null : date.trim()), exercise, weight, reps, sets, note, completed);
+    }
+
+    // Constructor for callers that already decoded the date (storage loaders)
+    Workout(String date, int epochDay, String exercise, double weight, int reps, int sets, String note, boolean completed) {
         this.date = date; // Set date
+        this.epochDay = epochDay; // Set decoded date
         this.exercise = exercise; // Set exercise
         this.weight = weight; // Set weight
         this.reps = reps; // Set reps
@@ -28,10 +33,27 @@ public class Workout { // Represents one workout entry
         return date;
     }
 
+    public int getEpochDay() { // Get date as epoch day
+        return epochDay;
+    }
+
+    public boolean hasValidDate() { // Check if the date was recognized
+        return getEpochDay() != DateCodec.INVALID;
+    }
+
     public String getExercise() { // Get exercise
         return exercise;
     }
 
+    public int getExerciseId() { // Get exercise as its ExerciseDictionary id
+        int id = exerciseId;
+        if (id == ExerciseDictionary.UNKNOWN) {
+            id = ExerciseDictionary.idOf(getExercise());
+            exerciseId = id;
+        }
+        return id;
+    }
+
     public double getWeight() { // Get weight
         return weight;
     }
@@ -57,87 +79,44 @@ public class Workout { // Represents one workout entry
     }
 
     public String toString() { // Print workout nicely
-        return "Date: " + date +
-                ", Exercise: " + exercise +
-                ", Weight: " + weight +
-                ", Reps: " + reps +
-                ", Sets: " + sets +
-                ", Note: " + note +
-                ", Completed: " + completed;
+        return "Date: " + getDate() +
+                ", Exercise: " + getExercise() +
+                ", Weight: " + getWeight() +
+                ", Reps: " + getReps() +
+                ", Sets: " + getSets() +
+                ", Note: " + getNote() +
+                ", Completed: " + isCompleted();
     }
 
     // Convert Workout object into a CSV-safe line for file persistence.
+    // Reads through the getters so subclasses such as columnar row views encode correctly.
     public String toCsvLine() {
-        List<String> fields = new ArrayList<>();
-        fields.add(date);
-        fields.add(exercise);
-        fields.add(String.valueOf(weight));
-        fields.add(String.valueOf(reps));
-        fields.add(String.valueOf(sets));
-        fields.add(note);
-        fields.add(String.valueOf(completed));
-        return toCsv(fields);
+        return CsvEncoder.local()
+                .field(getDate())
+                .field(getExercise())
+                .field(getWeight())
+                .field(getReps())
+                .field(getSets())
+                .field(getNote())
+                .field(isCompleted())
+                .toString();
     }
 
     // Build a Workout object from one CSV line loaded from storage.
     public static Workout fromCsvLine(String line) {
-        List<String> fields = parseCsv(line);
-        if (fields.size() < 7) {
+        CsvTokenizer fields = CsvTokenizer.local().tokenize(line);
+        if (fields.fieldCount() < 7) {
             throw new IllegalArgumentException("Invalid workout CSV line: " + line);
         }
 
-        String date = fields.get(0).trim();
-        String exercise = fields.get(1).trim();
-        double weight = Double.parseDouble(fields.get(2).trim());
-        int reps = Integer.parseInt(fields.get(3).trim());
-        int sets = Integer.parseInt(fields.get(4).trim());
-        String note = fields.get(5).trim();
-        boolean completed = Boolean.parseBoolean(fields.get(6).trim());
+        String date = fields.pooled(0);
+        String exercise = fields.pooled(1);
+        double weight = fields.doubleField(2);
+        int reps = fields.intField(3);
+        int sets = fields.intField(4);
+        String note = fields.field(5);
+        boolean completed = fields.fieldEqualsIgnoreCase(6, "true");
 
         return new Workout(date, exercise, weight, reps, sets, note, completed);
     }
-
-    private static String toCsv(List<String> fields) {
-        StringBuilder out = new StringBuilder();
-        for (int i = 0; i < fields.size(); i++) {
-            if (i > 0) {
-                out.append(',');
-            }
-            out.append(escapeCsv(fields.get(i)));
-        }
-        return out.toString();
-    }
-
-    private static String escapeCsv(String value) {
-        String safe = value == null ? "" : value.replace("\r", " ").replace("\n", " ").trim();
-        boolean needsQuotes = safe.contains(",") || safe.contains("\"");
-        safe = safe.replace("\"", "\"\"");
-        return needsQuotes ? "\"" + safe + "\"" : safe;
-    }
-
-    private static List<String> parseCsv(String line) {
-        List<String> fields = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            if (c == '"') {
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    current.append('"');
-                    i++;
-                } else {
-                    inQuotes = !inQuotes;
-                }
-            } else if (c == ',' && !inQuotes) {
-                fields.add(current.toString().trim());
-                current.setLength(0);
-            } else {
-                current.append(c);
-            }
-        }
-
-        fields.add(current.toString().trim());
-        return fields;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package com.mycompany.app;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-exercise training aggregates over a WorkoutLog: total volume (weight x reps x sets),
+ * number of workouts, personal record (heaviest weight) and best estimated one-rep max
+ * (Epley: weight x (1 + reps / 30), or the weight itself for a single). Every logged
+ * workout counts, completed or not.
+ *
+ * The analytics subscribe to the log and fold each add and remove into the aggregates, so
+ * reads never rescan the log. Volume and counts update in O(1). Records keep a sorted
+ * count of every weight and estimate, so a removal can fall back to the next best value;
+ * those updates are O(log n) in the number of distinct values for the exercise.
+ */
+public class WorkoutAnalytics implements WorkoutLogListener {
+
+    private final WorkoutLog log;
+    private final Map<Integer, Aggregate> byExercise = new HashMap<>();
+    private double totalVolume;
+
+    // Aggregate everything already in the log, then follow its edits; edits in between wait for us.
+    public WorkoutAnalytics(WorkoutLog log) {
+        this.log = log;
+        synchronized (this) {
+            for (Workout workout : log.subscribe(this)) {
+                add(workout);
+            }
+        }
+    }
+
+    // Stop following the log; the aggregates keep their current values.
+    public void detach() {
+        log.removeListener(this);
+    }
+
+    /** Aggregates of one exercise at the moment they were read. */
+    public static final class ExerciseStats {
+        private final String exercise;
+        private final int workoutCount;
+        private final double totalVolume;
+        private final double personalRecord;
+        private final double estimatedOneRepMax;
+
+        private ExerciseStats(String exercise, int workoutCount, double totalVolume, double personalRecord,
+                double estimatedOneRepMax) {
+            this.exercise = exercise;
+            this.workoutCount = workoutCount;
+            this.totalVolume = totalVolume;
+            this.personalRecord = personalRecord;
+            this.estimatedOneRepMax = estimatedOneRepMax;
+        }
+
+        public String getExercise() {
+            return exercise;
+        }
+
+        public int getWorkoutCount() {
+            return workoutCount;
+        }
+
+        public double getTotalVolume() {
+            return totalVolume;
+        }
+
+        // Heaviest weight logged for the exercise.
+        public double getPersonalRecord() {
+            return personalRecord;
+        }
+
+        // Best Epley estimate over the logged sets; 0 when no set had any reps.
+        public double getEstimatedOneRepMax() {
+            return estimatedOneRepMax;
+        }
+
+        @Override
+        public String toString() {
+            return exercise + ": " + workoutCount + " workouts, volume " + totalVolume + ", PR " + personalRecord
+                    + ", est. 1RM " + Math.round(estimatedOneRepMax * 10) / 10.0;
+        }
+    }
+
+    @Override
+    public synchronized void workoutAdded(int index, Workout workout) {
+        add(workout);
+    }
+
+    @Override
+    public synchronized void workoutRemoved(int index, Workout workout) {
+        Aggregate aggregate = byExercise.get(workout.getExerciseId());
+        if (aggregate == null) {
+            return;
+        }
+        double volume = volumeOf(workout);
+        aggregate.workoutCount--;
+        if (aggregate.workoutCount == 0) {
+            // Start the next workout of this exercise from exact zeros rather than rounding residue.
+            totalVolume -= aggregate.totalVolume;
+            byExercise.remove(workout.getExerciseId());
+            return;
+        }
+        aggregate.totalVolume -= volume;
+        totalVolume -= volume;
+        decrement(aggregate.weights, workout.getWeight());
+        decrement(aggregate.oneRepMaxes, oneRepMaxOf(workout));
+    }
+
+    // Statistics for the exercise, or null when none of it is logged.
+    public synchronized ExerciseStats getStats(String exercise) {
+        int id = ExerciseDictionary.lookup(exercise);
+        Aggregate aggregate = byExercise.get(id);
+        return aggregate == null ? null : aggregate.toStats(id);
+    }
+
+    // Statistics for every logged exercise, by name.
+    public synchronized List<ExerciseStats> getAllStats() {
+        List<ExerciseStats> stats = new ArrayList<>(byExercise.size());
+        for (Map.Entry<Integer, Aggregate> entry : byExercise.entrySet()) {
+            stats.add(entry.getValue().toStats(entry.getKey()));
+        }
+        Collections.sort(stats, (a, b) -> a.exercise.compareTo(b.exercise));
+        return stats;
+    }
+
+    // Volume across every exercise.
+    public synchronized double getTotalVolume() {
+        return byExercise.isEmpty() ? 0.0 : totalVolume;
+    }
+
+    private void add(Workout workout) {
+        Aggregate aggregate = byExercise.computeIfAbsent(workout.getExerciseId(), id -> new Aggregate());
+        double volume = volumeOf(workout);
+        aggregate.workoutCount++;
+        aggregate.totalVolume += volume;
+        totalVolume += volume;
+        aggregate.weights.merge(workout.getWeight(), 1, Integer::sum);
+        aggregate.oneRepMaxes.merge(oneRepMaxOf(workout), 1, Integer::sum);
+    }
+
+    static double volumeOf(Workout workout) {
+        return workout.getWeight() * workout.getReps() * workout.getSets();
+    }
+
+    static double oneRepMaxOf(Workout workout) {
+        int reps = workout.getReps();
+        if (reps <= 0) {
+            return 0.0;
+        }
+        return reps == 1 ? workout.getWeight() : workout.getWeight() * (1 + reps / 30.0);
+    }
+
+    private static void decrement(TreeMap<Double, Integer> counts, double value) {
+        Integer count = counts.get(value);
+        if (count == null) {
+            return;
+        }
+        if (count == 1) {
+            counts.remove(value);
+        } else {
+            counts.put(value, count - 1);
+        }
+    }
+
+    // Running totals for one exercise; the maps count how many workouts share each value.
+    private static final class Aggregate {
+        private int workoutCount;
+        private double totalVolume;
+        private final TreeMap<Double, Integer> weights = new TreeMap<>();
+        private final TreeMap<Double, Integer> oneRepMaxes = new TreeMap<>();
+
+        private ExerciseStats toStats(int exerciseId) {
+            return new ExerciseStats(ExerciseDictionary.nameOf(exerciseId), workoutCount, totalVolume,
+                    weights.lastKey(), oneRepMaxes.lastKey());
+        }
+    }
+}
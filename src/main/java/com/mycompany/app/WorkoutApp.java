@@ -1,28 +1,57 @@
 package com.mycompany.app; // Package name
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner; // Allows user input
+import java.util.concurrent.TimeUnit;
 
 public class WorkoutApp { // Main application class
 
+    private static final int DEFAULT_INGEST_BATCH_SIZE = 1000; // Rows appended per --ingest commit
+    private static final int MAX_REPORTED_REJECTS = 10; // Rejected --ingest lines printed before just counting
+
     public static void main(String[] args) { // Program starts here
 
         Scanner sc = new Scanner(System.in); // Create Scanner object
         WorkoutLog log = new WorkoutLog();   // Create WorkoutLog to store workouts
         FileStorage storage = new FileStorage();
 
+        // Backup commands: --backups lists retained versions, --restore <version> brings one back.
+        if (args.length > 0 && (args[0].equals("--backups") || args[0].equals("--restore"))) {
+            runBackupCommand(storage, args);
+            return;
+        }
+
+        // Bulk mode: --ingest [--batch-size N] appends CSV rows piped on stdin, no menu.
+        if (args.length > 0 && args[0].equals("--ingest")) {
+            runIngest(storage, args);
+            return;
+        }
+
         // Load existing workout history from file when app starts.
+        // Saves leave a binary checkpoint, so startup only parses rows appended since.
+        storage.setCheckpointEnabled(true);
         try {
             List<Workout> loadedWorkouts = storage.loadWorkoutObjects();
-            for (Workout workout : loadedWorkouts) {
-                log.addWorkout(workout);
-            }
+            log.addWorkouts(loadedWorkouts); // Add them in one batch
             if (!loadedWorkouts.isEmpty()) {
                 System.out.println("Loaded " + loadedWorkouts.size() + " workout(s) from storage.");
             }
         } catch (FileStorage.FileStorageException e) {
             System.out.println("Could not load saved workouts: " + e.getMessage());
         }
+        NoteIndex notes = NoteIndex.open(log, storage.getCurrentFilePath()); // Searchable notes, kept in sync
+
+        // Save edits in the background as they happen; only failures are reported.
+        AutoSaver autoSaver = new AutoSaver(log, storage, result -> {
+            for (String error : result.getErrors()) {
+                System.out.println("Autosave: " + error);
+            }
+        });
 
         boolean running = true; // Controls the menu loop
 
@@ -33,6 +62,7 @@ public class WorkoutApp { // Main application class
             System.out.println("1. Add Workout");
             System.out.println("2. View Workouts");
             System.out.println("3. Exit");
+            System.out.println("4. Search Notes");
             System.out.print("Choose an option: ");
 
             int choice = sc.nextInt(); // Read user choice
@@ -79,22 +109,41 @@ public class WorkoutApp { // Main application class
 
                 case 3: // Exit program
 
-                    // Save all workouts before exiting.
+                    // Save all workouts before exiting: flush what the autosaver has not written yet.
                     try {
-                        boolean saved = storage.saveWorkoutObjects(log.getAllWorkouts());
+                        boolean saved = !autoSaver.flushNow().hasErrors();
+                        autoSaver.close(); // Nothing is pending any more, so this only stops the saver
                         if (saved) {
                             System.out.println("Workouts saved successfully.");
+                            try {
+                                notes.save(storage.getCurrentFilePath()); // Rows match the log, so keep the index
+                            } catch (IOException e) {
+                                System.out.println("Could not save the note index: " + e.getMessage());
+                            }
                         } else {
                             System.out.println("Workouts saved with some skipped invalid rows.");
                         }
+                        storage.awaitBackups(10, TimeUnit.SECONDS); // Let background backups finish
                     } catch (FileStorage.FileStorageException e) {
                         System.out.println("Error saving workouts: " + e.getMessage());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
                     }
 
                     running = false; // Stop the loop
                     System.out.println("Exiting program..."); // Exit message
                     break; // End case 3
 
+                case 4: // Search notes
+
+                    System.out.print("Search (words must all match, end a word with * for a prefix): ");
+                    List<Workout> matches = notes.search(sc.nextLine());
+                    for (Workout match : matches) {
+                        System.out.println(match);
+                    }
+                    System.out.println(matches.size() + " matching workout(s).");
+                    break; // End case 4
+
                 default: // If user enters invalid option
 
                     System.out.println("Invalid choice."); // Show error message
@@ -103,4 +152,98 @@ public class WorkoutApp { // Main application class
 
         sc.close(); // Close Scanner before program ends
     }
-}
\ No newline at end of file
+
+    // List the backups of the workout file, or restore the named one over it.
+    private static void runBackupCommand(FileStorage storage, String[] args) {
+        String filePath = storage.getCurrentFilePath();
+        if (args[0].equals("--backups")) {
+            List<BackupStore.BackupVersion> versions = storage.listBackups(filePath);
+            if (versions.isEmpty()) {
+                System.out.println("No backups of " + filePath + ".");
+            }
+            for (BackupStore.BackupVersion version : versions) {
+                System.out.println(version);
+            }
+            return;
+        }
+        if (args.length < 2) {
+            System.out.println("Usage: --restore <backup name> (see --backups)");
+            return;
+        }
+        try {
+            storage.restoreBackup(args[1], filePath);
+            storage.awaitBackups(10, TimeUnit.SECONDS); // The replaced file is backed up in the background
+            System.out.println("Restored " + args[1] + ".");
+        } catch (FileStorage.FileStorageException e) {
+            System.out.println("Could not restore backup: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Read rows in the CSV file layout (date,exercise,weight,reps,sets,note,completed) from
+     * stdin, check each one with the storage validation rules, and append the valid ones to
+     * the workout file every batchSize rows. Ends with a throughput summary.
+     */
+    private static void runIngest(FileStorage storage, String[] args) {
+        int batchSize = DEFAULT_INGEST_BATCH_SIZE;
+        if (args.length == 3 && args[1].equals("--batch-size")) {
+            try {
+                batchSize = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                batchSize = 0;
+            }
+        }
+        if (batchSize <= 0 || (args.length != 1 && args.length != 3)) {
+            System.out.println("Usage: --ingest [--batch-size <rows>] < workouts.csv");
+            return;
+        }
+
+        storage.setOperationLoggingEnabled(false); // One summary instead of a line per batch
+        long startNanos = System.nanoTime();
+        int lineNumber = 0;
+        int rows = 0;
+        int appended = 0;
+        int rejected = 0;
+        int batches = 0;
+        List<Workout> batch = new ArrayList<>(batchSize);
+        InputStreamReader stdin = new InputStreamReader(System.in, StandardCharsets.UTF_8);
+        try (BufferedReader in = new BufferedReader(stdin, 1 << 16)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.equals(FileStorage.CSV_HEADER))) {
+                    continue;
+                }
+                rows++;
+                Workout workout = storage.parseWorkoutLine(line);
+                if (workout == null) {
+                    rejected++;
+                    if (rejected <= MAX_REPORTED_REJECTS) {
+                        System.out.println("Rejected line " + lineNumber + ": " + line);
+                    }
+                    continue;
+                }
+                batch.add(workout);
+                if (batch.size() == batchSize) {
+                    appended += storage.appendWorkoutObjects(batch).getSuccessCount();
+                    batches++;
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                appended += storage.appendWorkoutObjects(batch).getSuccessCount();
+                batches++;
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read input: " + e.getMessage());
+        } catch (FileStorage.FileStorageException e) {
+            System.out.println("Could not append workouts: " + e.getMessage());
+        }
+
+        double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+        System.out.printf("Ingested %d of %d row(s) into %s in %d batch(es), %d rejected, %.2f s (%.0f rows/s).%n",
+                appended, rows, storage.getCurrentFilePath(), batches, rejected, seconds, rows / seconds);
+    }
+}
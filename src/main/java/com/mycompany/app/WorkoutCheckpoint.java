@@ -0,0 +1,135 @@
+package com.mycompany.app;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a CSV workout file, so a load can decode the file's rows in bulk and
+ * parse only the rows appended to the CSV since.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * int magic "WKCP", short version, long csvLength, int prefixCrc, UTF fileKey
+ * BinaryWorkoutCodec image of the workouts in the first csvLength bytes of the CSV
+ * </pre>
+ * prefixCrc covers all csvLength bytes of that prefix, and fileKey is the CSV's file key
+ * (inode) when the file system has one, else empty. A checkpoint only applies while the CSV
+ * has the same file key, is at least csvLength long and its prefix still has the same CRC.
+ * Appends keep all three. Any edit inside the prefix, in place or by a rename, changes the
+ * CRC; checking it reads the prefix once, which is still far cheaper than parsing it.
+ */
+final class WorkoutCheckpoint {
+
+    static final String FILE_SUFFIX = ".checkpoint";
+    static final int MAGIC = 0x574B4350;
+    static final short VERSION = 3;
+    private static final int READ_BYTES = 64 * 1024;
+
+    private final List<Workout> workouts;
+    private final long csvLength;
+
+    private WorkoutCheckpoint(List<Workout> workouts, long csvLength) {
+        this.workouts = workouts;
+        this.csvLength = csvLength;
+    }
+
+    // The workouts in the checkpointed prefix of the CSV, in file order.
+    List<Workout> getWorkouts() {
+        return workouts;
+    }
+
+    // Offset in the CSV where rows not covered by the checkpoint start.
+    long getCsvLength() {
+        return csvLength;
+    }
+
+    // Write a checkpoint of workouts, which must be exactly the rows the CSV holds right now.
+    static void write(Path path, Path csv, List<Workout> workouts) throws IOException {
+        long csvLength = Files.size(csv);
+        int prefixCrc = prefixCrc(csv, csvLength);
+        String fileKey = fileKeyOf(csv);
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeLong(csvLength);
+                out.writeInt(prefixCrc);
+                out.writeUTF(fileKey);
+                BinaryWorkoutCodec.write(workouts, out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Read the checkpoint at path if it still describes a prefix of csv. Returns null when it
+     * is missing, corrupt, from another version, or the CSV was rewritten or truncated.
+     */
+    static WorkoutCheckpoint read(Path path, Path csv) {
+        if (!Files.exists(path) || !Files.exists(csv)) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (buffer.remaining() < 20 || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                return null;
+            }
+            long csvLength = buffer.getLong();
+            int prefixCrc = buffer.getInt();
+            byte[] fileKey = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(fileKey);
+            if (!new String(fileKey, StandardCharsets.UTF_8).equals(fileKeyOf(csv))) {
+                return null;
+            }
+            if (csvLength < 0 || Files.size(csv) < csvLength || prefixCrc(csv, csvLength) != prefixCrc) {
+                return null;
+            }
+            return new WorkoutCheckpoint(BinaryWorkoutCodec.read(buffer.slice()), csvLength);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    static Path pathFor(String csvFilePath) {
+        return Path.of(csvFilePath + FILE_SUFFIX);
+    }
+
+    private static String fileKeyOf(Path csv) throws IOException {
+        Object key = Files.readAttributes(csv, BasicFileAttributes.class).fileKey();
+        return key == null ? "" : key.toString();
+    }
+
+    // CRC32 of the first length bytes of the CSV.
+    private static int prefixCrc(Path csv, long length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate((int) Math.min(READ_BYTES, Math.max(length, 1)));
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < length) {
+                bytes.clear().limit((int) Math.min(bytes.capacity(), length - position));
+                int read = channel.read(bytes, position);
+                if (read < 0) {
+                    throw new IOException("Workout file is shorter than its checkpoint");
+                }
+                bytes.flip();
+                crc.update(bytes);
+                position += read;
+            }
+        }
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,136 @@
+package com.mycompany.app;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes over a WorkoutLog: exercise id to date-ordered postings, and a sorted
+ * date index for range queries. Exercises are keyed by their ExerciseDictionary id, so
+ * names differing only in whitespace share postings. The index subscribes to the log and
+ * is updated incrementally on every add and remove, so lookups never scan the whole log.
+ *
+ * Postings hold the Workout objects themselves and removals match them by identity, so
+ * the index needs a log that stores Workout objects (WorkoutLog and its object-backed
+ * variants). ColumnarWorkoutLog hands out fresh views instead and is rejected.
+ */
+public class WorkoutIndex implements WorkoutLogListener {
+
+    private final WorkoutLog log;
+    private final Map<Integer, TreeMap<Integer, List<Workout>>> byExercise = new HashMap<>();
+    private final TreeMap<Integer, List<Workout>> byDate = new TreeMap<>();
+
+    // Index everything already in the log, then follow its edits; edits in between wait for us.
+    public WorkoutIndex(WorkoutLog log) {
+        if (log instanceof ColumnarWorkoutLog) {
+            throw new IllegalArgumentException("WorkoutIndex needs a log that stores Workout objects");
+        }
+        this.log = log;
+        synchronized (this) {
+            for (Workout workout : log.subscribe(this)) {
+                insert(workout);
+            }
+        }
+    }
+
+    // Stop following the log; the index keeps its current contents.
+    public void detach() {
+        log.removeListener(this);
+    }
+
+    @Override
+    public synchronized void workoutAdded(int index, Workout workout) {
+        insert(workout);
+    }
+
+    @Override
+    public synchronized void workoutRemoved(int index, Workout workout) {
+        TreeMap<Integer, List<Workout>> dates = byExercise.get(workout.getExerciseId());
+        if (dates != null) {
+            removeFrom(dates, workout);
+            if (dates.isEmpty()) {
+                byExercise.remove(workout.getExerciseId());
+            }
+        }
+        removeFrom(byDate, workout);
+    }
+
+    // All sessions of one exercise, oldest first.
+    public synchronized List<Workout> findByExercise(String exercise) {
+        TreeMap<Integer, List<Workout>> dates = byExercise.get(ExerciseDictionary.lookup(exercise));
+        return dates == null ? Collections.emptyList() : flatten(dates.values());
+    }
+
+    // All workouts dated within [from, to], inclusive, oldest first.
+    public List<Workout> findByDateRange(LocalDate from, LocalDate to) {
+        return findByDateRange((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    public synchronized List<Workout> findByDateRange(int fromEpochDay, int toEpochDay) {
+        if (fromEpochDay > toEpochDay) {
+            return Collections.emptyList();
+        }
+        return flatten(byDate.subMap(fromEpochDay, true, toEpochDay, true).values());
+    }
+
+    // Sessions of one exercise dated within [from, to], inclusive, oldest first.
+    public List<Workout> findByExerciseBetween(String exercise, LocalDate from, LocalDate to) {
+        return findByExerciseBetween(exercise, (int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    public synchronized List<Workout> findByExerciseBetween(String exercise, int fromEpochDay, int toEpochDay) {
+        TreeMap<Integer, List<Workout>> dates = byExercise.get(ExerciseDictionary.lookup(exercise));
+        if (dates == null || fromEpochDay > toEpochDay) {
+            return Collections.emptyList();
+        }
+        return flatten(dates.subMap(fromEpochDay, true, toEpochDay, true).values());
+    }
+
+    // Distinct exercise names currently present in the log.
+    public synchronized List<String> getExercises() {
+        List<String> exercises = new ArrayList<>(byExercise.size());
+        for (int id : byExercise.keySet()) {
+            exercises.add(ExerciseDictionary.nameOf(id));
+        }
+        Collections.sort(exercises);
+        return exercises;
+    }
+
+    private void insert(Workout workout) {
+        byExercise.computeIfAbsent(workout.getExerciseId(), id -> new TreeMap<>())
+                .computeIfAbsent(workout.getEpochDay(), day -> new ArrayList<>(2))
+                .add(workout);
+        byDate.computeIfAbsent(workout.getEpochDay(), day -> new ArrayList<>(4)).add(workout);
+    }
+
+    // Remove by identity so equal-looking entries logged on the same day stay indexed.
+    private static void removeFrom(NavigableMap<Integer, List<Workout>> index, Workout workout) {
+        List<Workout> postings = index.get(workout.getEpochDay());
+        if (postings == null) {
+            return;
+        }
+        for (int i = 0; i < postings.size(); i++) {
+            if (postings.get(i) == workout) {
+                postings.remove(i);
+                break;
+            }
+        }
+        if (postings.isEmpty()) {
+            index.remove(workout.getEpochDay());
+        }
+    }
+
+    private static List<Workout> flatten(Collection<List<Workout>> postings) {
+        List<Workout> results = new ArrayList<>();
+        for (List<Workout> day : postings) {
+            results.addAll(day);
+        }
+        return results;
+    }
+}
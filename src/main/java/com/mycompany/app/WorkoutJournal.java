@@ -0,0 +1,522 @@
+package com.mycompany.app;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Append-only journal storage mode for a WorkoutLog.
+ *
+ * Edits are appended to "<csv>.journal" as small checksummed records instead of rewriting
+ * the CSV snapshot. Once enough records pile up, the log is compacted into the snapshot on
+ * a background thread. On startup the snapshot is loaded and the journal tail replayed.
+ *
+ * Journal layout, one record per line:
+ * <pre>
+ * #base &lt;size&gt; &lt;mtime&gt; &lt;crc32&gt;          CSV snapshot the following records apply to
+ * &lt;crc32&gt;|A|&lt;workout csv line&gt;          workout added
+ * &lt;crc32&gt;|R|&lt;index&gt;|&lt;workout csv line&gt;  workout removed
+ * &lt;crc32&gt;|C|&lt;index&gt;|&lt;workout csv line&gt;  workout marked completed
+ * #cut &lt;row count&gt;                      compaction started from a snapshot of this many rows
+ * </pre>
+ *
+ * Remove and complete records carry the workout's CSV line as well as its index, because
+ * saving drops invalid workouts and the replayed log can therefore be shorter than the one
+ * that wrote the journal.
+ *
+ * A journal that matches neither the snapshot nor a cut is not replayed, and is moved aside
+ * to "&lt;csv&gt;.journal.&lt;millis&gt;.unmatched" rather than overwritten, so its records can
+ * still be recovered by hand.
+ *
+ * Each record is forced to disk before the edit returns when the storage's durability is
+ * not NONE. If a record cannot be written, the whole log is saved to the snapshot instead
+ * and the journal restarted from it; when that fails too, the edit throws.
+ */
+public class WorkoutJournal implements WorkoutLogListener, AutoCloseable {
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String BASE_PREFIX = "#base ";
+    private static final String CUT_PREFIX = "#cut ";
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+    private static final int BUFFER_BYTES = 8 * 1024;
+
+    private final FileStorage storage;
+    private final String csvPath;
+    private final Path journalPath;
+    private final int compactionThreshold;
+    private final ExecutorService compactor;
+
+    private WorkoutLog log;
+    private ChannelFileWriter writer;
+    private int recordsSinceCompaction;
+    private boolean compacting;
+    private final List<String> recordsSinceCut = new ArrayList<>();
+
+    public WorkoutJournal(FileStorage storage) {
+        this(storage, storage.getCurrentFilePath(), DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public WorkoutJournal(FileStorage storage, String csvPath, int compactionThreshold) {
+        if (compactionThreshold < 1) {
+            throw new IllegalArgumentException("Compaction threshold must be positive");
+        }
+        this.storage = storage;
+        this.csvPath = csvPath;
+        this.journalPath = Paths.get(csvPath + JOURNAL_SUFFIX);
+        this.compactionThreshold = compactionThreshold;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workout-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the CSV snapshot into the log, replays any journal tail left by a crash and
+     * starts journaling further edits. The result counts the replayed journal records.
+     */
+    public synchronized FileStorage.OperationResult<Void> open(WorkoutLog target)
+            throws FileStorage.FileStorageException {
+        if (log != null) {
+            throw new FileStorage.FileStorageException("Journal is already open");
+        }
+
+        storage.streamWorkoutObjects(csvPath, target::addWorkout);
+        FileStorage.OperationResult<Void> replayed = replay(target);
+        log = target;
+
+        // A leftover journal means the last session did not shut down cleanly; fold it in now.
+        if (Files.exists(journalPath) && replayed.getProcessedCount() > 0) {
+            compactNow();
+        } else {
+            startJournal();
+        }
+        target.addListener(this);
+        return replayed;
+    }
+
+    @Override
+    public synchronized void workoutAdded(int index, Workout workout) {
+        append("A", workout.toCsvLine());
+    }
+
+    @Override
+    public synchronized void workoutRemoved(int index, Workout workout) {
+        append("R", index + "|" + workout.toCsvLine());
+    }
+
+    @Override
+    public synchronized void workoutCompleted(int index, Workout workout) {
+        append("C", index + "|" + workout.toCsvLine());
+    }
+
+    /**
+     * Writes the whole log to the CSV snapshot and starts an empty journal.
+     */
+    public void compactNow() throws FileStorage.FileStorageException {
+        WorkoutLog target = log;
+        if (target == null) {
+            throw new FileStorage.FileStorageException("Journal is not open");
+        }
+        // Lock the log before the journal, the same order edits take when they notify us.
+        synchronized (target) {
+            synchronized (this) {
+                requireOpen();
+                awaitCompaction();
+                closeWriter();
+                storage.saveWorkoutObjects(log.getAllWorkouts(), csvPath);
+                recordsSinceCut.clear();
+                recordsSinceCompaction = 0;
+                startJournal();
+            }
+        }
+    }
+
+    // Compact and stop journaling; the snapshot then holds every edit.
+    @Override
+    public void close() throws FileStorage.FileStorageException {
+        WorkoutLog target = log;
+        if (target == null) {
+            return;
+        }
+        synchronized (target) {
+            synchronized (this) {
+                if (log == null) {
+                    return;
+                }
+                log.removeListener(this);
+                compactNow();
+                closeWriter();
+                log = null;
+            }
+        }
+        compactor.shutdown();
+    }
+
+    public String getJournalPath() {
+        return journalPath.toString();
+    }
+
+    private void append(String op, String payload) {
+        if (log == null) {
+            return;
+        }
+        String record = checksum(op, payload) + "|" + op + "|" + payload;
+        try {
+            if (writer == null) {
+                throw new IOException("Journal writer was not reopened after compaction");
+            }
+            writeLine(record);
+        } catch (IOException e) {
+            System.err.println("[WorkoutJournal] Could not append record, saving the snapshot: " + e.getMessage());
+            saveSnapshotInstead(e);
+            return;
+        }
+
+        if (compacting) {
+            recordsSinceCut.add(record);
+        }
+        recordsSinceCompaction++;
+        if (recordsSinceCompaction >= compactionThreshold && !compacting) {
+            startBackgroundCompaction();
+        }
+    }
+
+    // Take the snapshot on the editing thread so it lines up exactly with the #cut marker.
+    private void startBackgroundCompaction() {
+        List<Workout> snapshot = log.getAllWorkouts();
+        try {
+            writeLine(CUT_PREFIX + snapshot.size());
+        } catch (IOException e) {
+            System.err.println("[WorkoutJournal] Could not start compaction: " + e.getMessage());
+            return;
+        }
+
+        compacting = true;
+        recordsSinceCut.clear();
+        recordsSinceCompaction = 0;
+        compactor.execute(() -> finishBackgroundCompaction(snapshot));
+    }
+
+    private void finishBackgroundCompaction(List<Workout> snapshot) {
+        try {
+            storage.saveWorkoutObjects(snapshot, csvPath);
+        } catch (FileStorage.FileStorageException e) {
+            System.err.println("[WorkoutJournal] Background compaction failed: " + e.getMessage());
+            synchronized (this) {
+                compacting = false;
+                notifyAll();
+            }
+            return;
+        }
+
+        synchronized (this) {
+            try {
+                // Rewrite the journal as the records made since the cut, based on the new snapshot.
+                Path temp = Paths.get(journalPath + ".tmp");
+                FileStorage.Durability policy = storage.getDurability();
+                try (ChannelFileWriter out = new ChannelFileWriter(temp, BUFFER_BYTES)) {
+                    out.write(baseLine());
+                    out.newLine();
+                    for (String record : recordsSinceCut) {
+                        out.write(record);
+                        out.newLine();
+                    }
+                    if (policy != FileStorage.Durability.NONE) {
+                        out.sync();
+                    }
+                }
+                closeWriter();
+                Files.move(temp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                syncDirectory(policy);
+                writer = ChannelFileWriter.appending(journalPath, BUFFER_BYTES);
+            } catch (IOException e) {
+                System.err.println("[WorkoutJournal] Could not rewrite journal: " + e.getMessage());
+            } finally {
+                recordsSinceCut.clear();
+                compacting = false;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Applies journal records on top of the freshly loaded snapshot. Records after the base
+     * line apply if the snapshot is unchanged; if a compaction replaced the snapshot before
+     * the journal was rewritten, only records after the last cut apply. A torn or corrupt
+     * record ends the replay.
+     */
+    private FileStorage.OperationResult<Void> replay(WorkoutLog target) throws FileStorage.FileStorageException {
+        List<String> errors = new ArrayList<>();
+        if (!Files.exists(journalPath)) {
+            return new FileStorage.OperationResult<>(null, 0, 0, 0, errors);
+        }
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            throw new FileStorage.FileStorageException("Failed to read journal: " + e.getMessage(), e);
+        }
+
+        int start = -1;
+        String base = baseLine();
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).equals(base)) {
+                start = i + 1;
+            }
+        }
+        if (start < 0) {
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                if (lines.get(i).startsWith(CUT_PREFIX)) {
+                    start = i + 1;
+                    break;
+                }
+            }
+        }
+        if (start < 0) {
+            Path aside = Paths.get(journalPath + "." + System.currentTimeMillis() + ".unmatched");
+            try {
+                Files.move(journalPath, aside);
+            } catch (IOException e) {
+                throw new FileStorage.FileStorageException("Journal does not match the current snapshot and could not"
+                        + " be moved aside: " + e.getMessage(), e);
+            }
+            System.err.println("[WorkoutJournal] Journal does not match the current snapshot; kept as " + aside);
+            errors.add("Journal does not match the current snapshot; kept as " + aside);
+            return new FileStorage.OperationResult<>(null, 0, 0, 0, errors);
+        }
+
+        int processedCount = 0;
+        int successCount = 0;
+        for (int i = start; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.startsWith("#")) {
+                continue;
+            }
+            processedCount++;
+            if (!applyRecord(target, line)) {
+                errors.add("Stopped journal replay at line " + (i + 1) + ": " + line);
+                break;
+            }
+            successCount++;
+        }
+
+        return new FileStorage.OperationResult<>(null, processedCount, successCount,
+                processedCount - successCount, errors);
+    }
+
+    // Apply one record; returns false only when the record itself is torn or corrupt.
+    private boolean applyRecord(WorkoutLog target, String record) {
+        int first = record.indexOf('|');
+        int second = first < 0 ? -1 : record.indexOf('|', first + 1);
+        if (second < 0) {
+            return false;
+        }
+
+        String op = record.substring(first + 1, second);
+        String payload = record.substring(second + 1);
+        if (!record.substring(0, first).equals(checksum(op, payload))) {
+            return false;
+        }
+
+        if ("A".equals(op)) {
+            // Invalid workouts never reach the snapshot, so they are not replayed either.
+            Workout workout = storage.parseWorkoutLine(payload);
+            if (workout != null) {
+                target.addWorkout(workout);
+            }
+            return true;
+        }
+
+        int separator = payload.indexOf('|');
+        if (separator < 0 || (!"R".equals(op) && !"C".equals(op))) {
+            return false;
+        }
+        int index;
+        Workout recorded;
+        try {
+            index = Integer.parseInt(payload.substring(0, separator));
+            recorded = Workout.fromCsvLine(payload.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        int position = locate(target, index, recorded);
+        if (position >= 0 && "R".equals(op)) {
+            target.removeWorkout(position);
+        } else if (position >= 0) {
+            target.markCompleted(position);
+        }
+        return true;
+    }
+
+    // Find the journaled workout, trusting the recorded index when the row there still matches.
+    private static int locate(WorkoutLog target, int index, Workout recorded) {
+        int size = target.getTotalWorkouts();
+        if (index >= 0 && index < size && sameEntry(target.getWorkout(index), recorded)) {
+            return index;
+        }
+        for (int i = 0; i < size; i++) {
+            if (sameEntry(target.getWorkout(i), recorded)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Compare everything except the completed flag, which a C record itself changes.
+    private static boolean sameEntry(Workout a, Workout b) {
+        return Objects.equals(a.getDate(), b.getDate())
+                && a.getExerciseId() == b.getExerciseId()
+                && Double.compare(a.getWeight(), b.getWeight()) == 0
+                && a.getReps() == b.getReps()
+                && a.getSets() == b.getSets()
+                && Objects.equals(a.getNote(), b.getNote());
+    }
+
+    private void startJournal() throws FileStorage.FileStorageException {
+        try {
+            writer = new ChannelFileWriter(journalPath, BUFFER_BYTES);
+            writeLine(baseLine());
+            syncDirectory(storage.getDurability());
+        } catch (IOException e) {
+            closeWriter();
+            throw new FileStorage.FileStorageException("Failed to start journal: " + e.getMessage(), e);
+        }
+    }
+
+    // Write one line and make it as durable as the storage's policy asks before returning.
+    private void writeLine(String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+        if (storage.getDurability() == FileStorage.Durability.NONE) {
+            writer.flush();
+        } else {
+            writer.sync();
+        }
+    }
+
+    /**
+     * The journal could not take a record, so a crash would lose the edit. Save the whole log
+     * to the snapshot, which the record would only have been replayed onto, and restart the
+     * journal from it. If the snapshot cannot be saved either, the edit is stored nowhere and
+     * the editing caller gets the failure.
+     */
+    private void saveSnapshotInstead(IOException cause) {
+        awaitCompaction();
+        closeWriter();
+        try {
+            storage.saveWorkoutObjects(log.getAllWorkouts(), csvPath);
+        } catch (FileStorage.FileStorageException e) {
+            e.addSuppressed(cause);
+            throw new IllegalStateException("Could not journal or save the edit: " + e.getMessage(), e);
+        }
+        recordsSinceCut.clear();
+        recordsSinceCompaction = 0;
+        try {
+            startJournal();
+        } catch (FileStorage.FileStorageException e) {
+            // The edit is in the snapshot; the next one retries the journal.
+            System.err.println("[WorkoutJournal] " + e.getMessage());
+        }
+    }
+
+    private void syncDirectory(FileStorage.Durability policy) {
+        Path parent = journalPath.toAbsolutePath().getParent();
+        if (policy == FileStorage.Durability.FSYNC_FILE_AND_DIRECTORY && parent != null) {
+            ChannelFileWriter.syncDirectory(parent);
+        }
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("[WorkoutJournal] Could not close journal: " + e.getMessage());
+        }
+        writer = null;
+    }
+
+    /**
+     * Identity of the current snapshot file. The CRC of its contents tells a rewrite apart even
+     * when the size is unchanged and the file system's modification times are too coarse.
+     */
+    private String baseLine() {
+        Path csv = Paths.get(csvPath);
+        try {
+            if (Files.exists(csv)) {
+                CRC32 crc = new CRC32();
+                try (InputStream in = new CheckedInputStream(Files.newInputStream(csv), crc)) {
+                    in.transferTo(OutputStream.nullOutputStream());
+                }
+                return BASE_PREFIX + Files.size(csv) + " " + Files.getLastModifiedTime(csv).toMillis() + " "
+                        + Long.toHexString(crc.getValue());
+            }
+        } catch (IOException e) {
+            System.err.println("[WorkoutJournal] Could not stat snapshot: " + e.getMessage());
+        }
+        return BASE_PREFIX + "-1 -1 0";
+    }
+
+    private void awaitCompaction() {
+        boolean interrupted = false;
+        while (compacting) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void requireOpen() throws FileStorage.FileStorageException {
+        if (log == null) {
+            throw new FileStorage.FileStorageException("Journal is not open");
+        }
+    }
+
+    private static String checksum(String op, String payload) {
+        CRC32 crc = new CRC32();
+        crc.update((op + "|" + payload).getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    // Wait for a background compaction to finish; mainly useful for tests and shutdown.
+    boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this) {
+            while (compacting) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+        return true;
+    }
+}
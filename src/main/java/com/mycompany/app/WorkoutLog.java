@@ -1,36 +1,69 @@
 package com.mycompany.app;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-// WorkoutLog manages a list of workout entries
+// WorkoutLog manages a list of workout entries.
+// Methods synchronize on the log so background savers can take consistent copies.
+// Entries live in a copy-on-write array: snapshots share it, and the first removal after
+// a snapshot copies it, so getAllWorkouts() never has to copy the whole log.
 public class WorkoutLog {
 
-    private List<Workout> workoutList; // List to store all workouts
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Workout[] workouts; // Array holding all workouts; slots past size are unused
+    private int size; // Number of workouts in the log
+    private boolean shared; // True while a snapshot may still be reading the array
+    private final List<WorkoutLogListener> listeners = new CopyOnWriteArrayList<>(); // Change subscribers
 
     // Constructor initializes the workout list
     public WorkoutLog() {
-        workoutList = new ArrayList<>();
+        workouts = new Workout[INITIAL_CAPACITY];
     }
 
     // Add a new workout to the log
-    public void addWorkout(Workout workout) {
-        workoutList.add(workout);
+    // Appends only touch the slot past every snapshot's size, so they never copy for a snapshot.
+    public synchronized void addWorkout(Workout workout) {
+        if (size == workouts.length) {
+            workouts = Arrays.copyOf(workouts, size + (size >> 1) + 1);
+            shared = false;
+        }
+        workouts[size] = workout;
+        size++;
+        fireAdded(size - 1, workout);
+    }
+
+    // Add several workouts under one lock; listeners still hear about each one
+    public synchronized void addWorkouts(Collection<Workout> workouts) {
+        for (Workout workout : workouts) {
+            addWorkout(workout);
+        }
     }
 
     // Remove a workout by its index
-    public void removeWorkout(int workoutIndex) {
-        if (workoutIndex >= 0 && workoutIndex < workoutList.size()) {
-            workoutList.remove(workoutIndex);
+    public synchronized void removeWorkout(int workoutIndex) {
+        if (workoutIndex >= 0 && workoutIndex < size) {
+            Workout removed = workouts[workoutIndex];
+            if (shared) {
+                workouts = Arrays.copyOf(workouts, workouts.length);
+                shared = false;
+            }
+            System.arraycopy(workouts, workoutIndex + 1, workouts, workoutIndex, size - workoutIndex - 1);
+            size--;
+            workouts[size] = null;
+            fireRemoved(workoutIndex, removed);
         } else {
             System.out.println("Invalid index. No workout removed.");
         }
     }
 
     // Get a workout by its index
-    public Workout getWorkout(int workoutIndex) {
-        if (workoutIndex >= 0 && workoutIndex < workoutList.size()) {
-            return workoutList.get(workoutIndex);
+    public synchronized Workout getWorkout(int workoutIndex) {
+        if (workoutIndex >= 0 && workoutIndex < size) {
+            return workouts[workoutIndex];
         } else {
             System.out.println("Invalid index. Returning null.");
             return null;
@@ -38,20 +71,22 @@ public class WorkoutLog {
     }
 
     // List all workouts
-    public void listAllWorkouts() {
-        if (workoutList.isEmpty()) {
+    public synchronized void listAllWorkouts() {
+        if (size == 0) {
             System.out.println("No workouts in the log.");
         } else {
-            for (int i = 0; i < workoutList.size(); i++) {
-                System.out.println("[" + i + "] " + workoutList.get(i));
+            for (int i = 0; i < size; i++) {
+                System.out.println("[" + i + "] " + workouts[i]);
             }
         }
     }
 
     // Mark a workout as completed
-    public void markCompleted(int index) {
-        if (index >= 0 && index < workoutList.size()) {
-            workoutList.get(index).setCompleted(true);
+    public synchronized void markCompleted(int index) {
+        if (index >= 0 && index < size) {
+            Workout workout = workouts[index];
+            workout.setCompleted(true);
+            fireCompleted(index, workout);
             System.out.println("Workout marked as completed.");
         } else {
             System.out.println("Invalid index. Cannot mark completed.");
@@ -59,12 +94,58 @@ public class WorkoutLog {
     }
 
     // Get the total number of workouts
-    public int getTotalWorkouts() {
-        return workoutList.size();
+    public synchronized int getTotalWorkouts() {
+        return size;
     }
 
     // Return all workouts so persistence layer can save them.
+    // The list is a read-only snapshot; see snapshot().
     public List<Workout> getAllWorkouts() {
-        return new ArrayList<>(workoutList);
+        return snapshot();
+    }
+
+    // Read-only point-in-time view of the log in O(1); later adds and removes do not show through.
+    // It holds the log's own Workout objects, so markCompleted shows through; copy them to freeze that too.
+    // ColumnarWorkoutLog stores no objects and its snapshots do not see completions.
+    public synchronized List<Workout> snapshot() {
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        shared = true;
+        return new WorkoutSnapshot(workouts, size);
+    }
+
+    // Register a listener to be told about every add, remove and completion
+    public void addListener(WorkoutLogListener listener) {
+        listeners.add(listener);
+    }
+
+    // Register a listener and return the log as of that moment; every later edit reaches the listener
+    public synchronized List<Workout> subscribe(WorkoutLogListener listener) {
+        addListener(listener);
+        return snapshot();
+    }
+
+    // Stop sending change notifications to a listener
+    public void removeListener(WorkoutLogListener listener) {
+        listeners.remove(listener);
+    }
+
+    protected void fireAdded(int index, Workout workout) {
+        for (WorkoutLogListener listener : listeners) {
+            listener.workoutAdded(index, workout);
+        }
+    }
+
+    protected void fireRemoved(int index, Workout workout) {
+        for (WorkoutLogListener listener : listeners) {
+            listener.workoutRemoved(index, workout);
+        }
+    }
+
+    protected void fireCompleted(int index, Workout workout) {
+        for (WorkoutLogListener listener : listeners) {
+            listener.workoutCompleted(index, workout);
+        }
     }
-}
\ No newline at end of file
+}
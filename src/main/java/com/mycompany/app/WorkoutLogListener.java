@@ -0,0 +1,19 @@
+package com.mycompany.app;
+
+/**
+ * Receives change notifications from a WorkoutLog after each edit is applied.
+ */
+public interface WorkoutLogListener {
+
+    // Called after a workout is appended at the given index
+    default void workoutAdded(int index, Workout workout) {
+    }
+
+    // Called after the workout at the given index has been removed
+    default void workoutRemoved(int index, Workout workout) {
+    }
+
+    // Called after the workout at the given index has been marked completed
+    default void workoutCompleted(int index, Workout workout) {
+    }
+}
@@ -0,0 +1,328 @@
+package com.mycompany.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lightweight tests for the WorkoutLog implementations.
+ */
+public class WorkoutLogTest {
+
+    public static void main(String[] args) throws Exception {
+        testColumnarLogMatchesObjectLog();
+        testIndexTracksEdits();
+        testAnalyticsTrackEdits();
+        testNoteIndexSearchAndPersistence();
+        testSnapshotsAreStable();
+        testColumnarAppendsPastSnapshots();
+        testConcurrentLogHasNoLostUpdates();
+        System.out.println("All WorkoutLog tests passed.");
+    }
+
+    private static void testColumnarLogMatchesObjectLog() {
+        WorkoutLog objects = new WorkoutLog();
+        ColumnarWorkoutLog columnar = new ColumnarWorkoutLog();
+        for (int i = 0; i < 200; i++) {
+            Workout workout = new Workout((i % 28 + 1) + "/1/2026", i % 2 == 0 ? "Squat" : "Bench Press",
+                    100 + i, 5, 3, i % 3 == 0 ? "" : "Note " + i, i % 5 == 0);
+            objects.addWorkout(workout);
+            columnar.addWorkout(workout);
+        }
+        objects.removeWorkout(70);
+        columnar.removeWorkout(70);
+        objects.markCompleted(130);
+        columnar.markCompleted(130);
+
+        List<Workout> snapshot = columnar.getAllWorkouts();
+        columnar.removeWorkout(0);
+
+        assertEquals(objects.getTotalWorkouts(), snapshot.size(), "Snapshot should keep its size");
+        for (int i = 0; i < objects.getTotalWorkouts(); i++) {
+            assertEquals(objects.getWorkout(i).toCsvLine(), snapshot.get(i).toCsvLine(), "Row " + i + " should match");
+        }
+        assertEquals(objects.getWorkout(1).toCsvLine(), columnar.getWorkout(0).toCsvLine(), "Removal should shift rows");
+        assertEquals(objects.getWorkout(1).getEpochDay(), columnar.getWorkout(0).getEpochDay(), "Epoch days should be stored");
+    }
+
+    private static void testIndexTracksEdits() {
+        WorkoutLog log = new WorkoutLog();
+        log.addWorkout(new Workout("2/1/2026", "Squat", 185.0, 5, 5, "", true));
+        WorkoutIndex index = new WorkoutIndex(log);
+        log.addWorkout(new Workout("2/10/2026", "Bench Press", 135.0, 8, 3, "", true));
+        log.addWorkout(new Workout("2026-02-15", "Squat", 195.0, 5, 5, "", false));
+        log.addWorkout(new Workout("3/1/2026", " Squat ", 200.0, 3, 5, "", false));
+
+        List<Workout> february = index.findByExerciseBetween("Squat",
+                java.time.LocalDate.of(2026, 2, 1), java.time.LocalDate.of(2026, 2, 28));
+        assertEquals(2, february.size(), "Range query should find February squats");
+        assertEquals(195.0, february.get(1).getWeight(), "Results should be date ordered");
+        assertEquals(3, index.findByExercise("Squat").size(), "Exercise names should be normalized");
+
+        log.removeWorkout(0);
+        assertEquals(2, index.findByExercise("Squat").size(), "Removal should update postings");
+        assertEquals(2, index.findByDateRange(java.time.LocalDate.of(2026, 2, 1),
+                java.time.LocalDate.of(2026, 2, 28)).size(), "Removal should update the date index");
+        assertTrue(index.findByExercise("Deadlift").isEmpty(), "Unknown exercises should be empty");
+
+        boolean rejected = false;
+        try {
+            new WorkoutIndex(new ColumnarWorkoutLog());
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        assertTrue(rejected, "Logs of row views cannot be indexed by identity");
+
+        // An index built while another thread appends must see every workout exactly once.
+        ConcurrentWorkoutLog shared = new ConcurrentWorkoutLog();
+        Thread writer = startAppending(shared, 200_000);
+        WorkoutIndex live = new WorkoutIndex(shared);
+        joinQuietly(writer);
+        assertEquals(200_000, live.findByExercise("Squat").size(), "Edits during construction should not be lost");
+    }
+
+    // Start a thread appending count squats with the note "steady", and return once it is under way.
+    private static Thread startAppending(ConcurrentWorkoutLog log, int count) {
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                log.addWorkout(new Workout("3/1/2026", "Squat", i, 5, 5, "steady", false));
+            }
+        });
+        writer.start();
+        while (log.getTotalWorkouts() < Math.min(1000, count)) {
+            Thread.onSpinWait();
+        }
+        return writer;
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted waiting for " + thread.getName());
+        }
+    }
+
+    private static void testAnalyticsTrackEdits() {
+        WorkoutLog log = new ColumnarWorkoutLog();
+        log.addWorkout(new Workout("2/1/2026", "Squat", 185.0, 5, 5, "", true));
+        WorkoutAnalytics analytics = new WorkoutAnalytics(log);
+        log.addWorkout(new Workout("2/8/2026", "Squat", 225.0, 1, 1, "", true));
+        log.addWorkout(new Workout("2/10/2026", "Bench Press", 135.0, 8, 3, "", true));
+
+        WorkoutAnalytics.ExerciseStats squat = analytics.getStats(" Squat");
+        assertEquals(2, squat.getWorkoutCount(), "Existing and new workouts should both count");
+        assertEquals(185.0 * 25 + 225.0, squat.getTotalVolume(), "Volume should be weight x reps x sets");
+        assertEquals(225.0, squat.getPersonalRecord(), "Heaviest weight should be the PR");
+        assertEquals(225.0, squat.getEstimatedOneRepMax(), "A single should count at its own weight");
+
+        log.removeWorkout(1);
+        squat = analytics.getStats("Squat");
+        assertEquals(185.0, squat.getPersonalRecord(), "Removal should fall back to the next heaviest weight");
+        assertEquals(185.0 * (1 + 5 / 30.0), squat.getEstimatedOneRepMax(),
+                "Removal should fall back to the next estimate");
+        assertEquals(185.0 * 25 + 135.0 * 24, analytics.getTotalVolume(), "Removal should subtract its volume");
+
+        log.removeWorkout(1);
+        assertEquals(null, analytics.getStats("Bench Press"), "Exercises with no workouts should disappear");
+        assertEquals(1, analytics.getAllStats().size(), "Only logged exercises should be listed");
+
+        ConcurrentWorkoutLog shared = new ConcurrentWorkoutLog();
+        Thread writer = startAppending(shared, 100_000);
+        WorkoutAnalytics live = new WorkoutAnalytics(shared);
+        joinQuietly(writer);
+        assertEquals(100_000, live.getStats("Squat").getWorkoutCount(), "Edits during construction should not be lost");
+    }
+
+    private static void testNoteIndexSearchAndPersistence() throws Exception {
+        WorkoutLog log = new WorkoutLog();
+        log.addWorkout(new Workout("2/1/2026", "Squat", 185.0, 5, 5, "Shoulder pain on the walkout", true));
+        NoteIndex index = new NoteIndex(log);
+        log.addWorkout(new Workout("2/3/2026", "Bench Press", 135.0, 8, 3, "New PR, no shoulder issues", true));
+        log.addWorkout(new Workout("2/5/2026", "Overhead Press", 95.0, 5, 5, "Shoulder felt painful", false));
+
+        assertEquals(3, index.find("SHOULDER").size(), "Terms should match case-insensitively");
+        assertEquals(1, index.find("shoulder pain").size(), "Multi-word finds should AND their terms");
+        assertEquals(2, index.findPrefix("pai").size(), "Prefix queries should cover every matching term");
+        assertEquals(2, index.search("shoulder pai*").size(), "Search should AND terms and prefixes");
+        assertEquals(1, index.find("pr").size(), "Punctuation should not stick to terms");
+        assertEquals(2, index.find("press").size(), "Exercise names should be indexed");
+        assertEquals("Bench Press", index.search("press shoulder").get(0).getExercise(), "Results in log order");
+
+        log.removeWorkout(0);
+        assertTrue(index.find("walkout").isEmpty(), "Removal should drop the workout's terms");
+        assertEquals(2, index.find("shoulder").size(), "Removal should update shared postings");
+
+        java.nio.file.Path dir = java.nio.file.Files.createTempDirectory("workout-notes-");
+        String filePath = dir.resolve("workouts_notes.csv").toString();
+        FileStorage storage = new FileStorage(filePath);
+        storage.setAutoBackupEnabled(false);
+        assertTrue(storage.saveWorkoutObjects(log.getAllWorkouts(), filePath), "Save should keep every row");
+        index.save(filePath);
+
+        WorkoutLog reloaded = new WorkoutLog();
+        reloaded.addWorkouts(storage.loadWorkoutObjects(filePath));
+        NoteIndex opened = NoteIndex.open(reloaded, filePath);
+        assertEquals(index.getTermCount(), opened.getTermCount(), "Stored index should reopen whole");
+        assertTrue(opened.find("painful").get(0) == reloaded.getWorkout(1), "Postings should map to loaded rows");
+        reloaded.addWorkout(new Workout("2/9/2026", "Squat", 185.0, 5, 5, "Painful knee", true));
+        assertEquals(2, opened.findPrefix("pain").size(), "Reopened index should follow edits");
+
+        java.nio.file.Files.write(java.nio.file.Path.of(filePath), List.of(FileStorage.CSV_HEADER,
+                "2/9/2026,Squat,185.0,5,5,Edited elsewhere,true"));
+        WorkoutLog edited = new WorkoutLog();
+        edited.addWorkouts(storage.loadWorkoutObjects(filePath));
+        assertEquals(1, NoteIndex.open(edited, filePath).find("elsewhere").size(),
+                "A stale stored index should be rebuilt from the notes");
+
+        WorkoutLog repeated = new WorkoutLog();
+        Workout twice = new Workout("2/9/2026", "Squat", 185.0, 5, 5, "Same instance", true);
+        repeated.addWorkout(twice);
+        repeated.addWorkout(twice);
+        storage.saveWorkoutObjects(repeated.getAllWorkouts(), filePath);
+        new NoteIndex(repeated).save(filePath);
+        assertTrue(!java.nio.file.Files.exists(NoteIndex.pathFor(filePath)), "Repeated instances cannot be stored");
+
+        boolean rejected = false;
+        try {
+            new NoteIndex(new ColumnarWorkoutLog());
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        assertTrue(rejected, "Logs of row views cannot be indexed by identity");
+
+        ConcurrentWorkoutLog shared = new ConcurrentWorkoutLog();
+        Thread writer = startAppending(shared, 100_000);
+        NoteIndex live = new NoteIndex(shared);
+        joinQuietly(writer);
+        assertEquals(100_000, live.find("steady").size(), "Edits during construction should not be lost");
+    }
+
+    private static void testSnapshotsAreStable() {
+        WorkoutLog log = new WorkoutLog();
+        for (int i = 0; i < 40; i++) {
+            log.addWorkout(new Workout("3/1/2026", "Row", i, 10, 3, "", false));
+        }
+        List<Workout> before = log.getAllWorkouts();
+        log.removeWorkout(0);
+        log.addWorkout(new Workout("3/2/2026", "Row", 99, 10, 3, "", false));
+        List<Workout> after = log.snapshot();
+
+        assertEquals(40, before.size(), "Snapshot should keep its size");
+        assertEquals(0.0, before.get(0).getWeight(), "Removals should not show through");
+        assertEquals(39.0, before.get(39).getWeight(), "Appends should not show through");
+        assertEquals(40, after.size(), "New snapshots should see the edits");
+        assertEquals(99.0, after.get(39).getWeight(), "New snapshots should see appends");
+        log.markCompleted(0);
+        assertEquals(true, before.get(1).isCompleted(), "Snapshots share the log's workouts, so completions show through");
+        boolean rejected = false;
+        try {
+            before.add(new Workout("3/3/2026", "Row", 1, 1, 1, "", false));
+        } catch (UnsupportedOperationException e) {
+            rejected = true;
+        }
+        assertTrue(rejected, "Snapshots should be read-only");
+    }
+
+    // Columnar snapshots copy rows out, so unlike object snapshots they do not see completions.
+    private static void testColumnarAppendsPastSnapshots() {
+        ColumnarWorkoutLog log = new ColumnarWorkoutLog();
+        for (int i = 0; i < 10; i++) {
+            log.addWorkout(new Workout("3/1/2026", "Row", i, 10, 3, "Note " + i, false));
+        }
+        List<Workout> before = log.snapshot();
+        log.addWorkout(new Workout("3/2/2026", "Deadlift", 225.0, 5, 3, "New names", true));
+        log.markCompleted(0);
+        for (int i = 0; i < 40; i++) {
+            log.addWorkout(new Workout("4/" + (i % 28 + 1) + "/2026", "Lift " + i, i, 1, 1, "", false));
+        }
+
+        assertEquals(10, before.size(), "Appends should not grow a snapshot");
+        assertEquals(false, before.get(0).isCompleted(), "Completions should not show through");
+        assertEquals("Note 9", before.get(9).getNote(), "Snapshot rows should keep their values");
+        assertEquals("Row", before.get(9).getExercise(), "Snapshot dictionaries should stay readable");
+        List<Workout> after = log.snapshot();
+        assertEquals(51, after.size(), "New snapshots should see every append");
+        assertEquals("Deadlift", after.get(10).getExercise(), "Appended dictionary entries should resolve");
+        assertEquals("Lift 39", after.get(50).getExercise(), "Grown dictionaries should resolve");
+        assertEquals(true, after.get(0).isCompleted(), "New snapshots should see completions");
+    }
+
+    // Writers hammer a shared partition and their own while readers take snapshots.
+    private static void testConcurrentLogHasNoLostUpdates() throws Exception {
+        ConcurrentWorkoutLog log = new ConcurrentWorkoutLog();
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String user = "user" + t;
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    log.addWorkout(new Workout("3/1/2026", "Squat", i, 5, 5, "", false));
+                    log.addWorkout(user, new Workout("3/1/2026", "Bench Press", i, 5, 5, "", false));
+                    log.markCompleted(user, i);
+                    if (i % 2 == 0) {
+                        log.markCompleted(ConcurrentWorkoutLog.DEFAULT_USER, i);
+                    }
+                }
+                return null;
+            }));
+        }
+        Future<?> reader = pool.submit(() -> {
+            start.await();
+            while (writers.stream().anyMatch(writer -> !writer.isDone())) {
+                List<Workout> snapshot = log.getAllWorkouts();
+                int size = snapshot.size();
+                for (Workout workout : snapshot) {
+                    assertTrue(workout != null, "Snapshots should never expose empty slots");
+                }
+                assertEquals(size, snapshot.size(), "Snapshots should keep their size");
+            }
+            return null;
+        });
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        reader.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertEquals(threads * perThread, log.getTotalWorkouts(), "Shared appends should not be lost");
+        assertEquals(threads * perThread * 2, log.getTotalWorkoutsAllUsers(), "Per-user appends should not be lost");
+        for (int t = 0; t < threads; t++) {
+            List<Workout> own = log.snapshot("user" + t);
+            assertEquals(perThread, own.size(), "Each user should keep every workout");
+            for (int i = 0; i < perThread; i++) {
+                assertEquals((double) i, own.get(i).getWeight(), "Per-user order should be preserved");
+                assertTrue(own.get(i).isCompleted(), "Completions should not be lost");
+            }
+        }
+        int completed = 0;
+        for (Workout workout : log.getAllWorkouts()) {
+            if (workout.isCompleted()) {
+                completed++;
+            }
+        }
+        assertEquals(perThread / 2, completed, "Shared completions should land on shared rows");
+    }
+
+    private static void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private static void assertEquals(Object expected, Object actual, String message) {
+        if ((expected == null && actual != null) || (expected != null && !expected.equals(actual))) {
+            throw new AssertionError(message + " Expected=" + expected + " Actual=" + actual);
+        }
+    }
+}
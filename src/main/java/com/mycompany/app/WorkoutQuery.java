@@ -0,0 +1,113 @@
+package com.mycompany.app;
+
+import java.time.LocalDate;
+
+/**
+ * Filter over workouts: an inclusive date range, one exercise, the completed flag, a
+ * minimum weight and a result limit. Unset criteria match everything.
+ *
+ * FileStorage evaluates a query while scanning a CSV file: the date and exercise columns
+ * are checked straight from the tokenized row, and only rows that pass are validated and
+ * turned into Workouts; the scan stops once the limit is reached. {@link #matches} applies
+ * the same criteria to workouts already in memory.
+ */
+public final class WorkoutQuery {
+
+    private int fromEpochDay = Integer.MIN_VALUE;
+    private int toEpochDay = Integer.MAX_VALUE;
+    private String exercise;
+    private int exerciseId = ExerciseDictionary.UNKNOWN;
+    private Boolean completed;
+    private double minWeight = Double.NEGATIVE_INFINITY;
+    private int limit = Integer.MAX_VALUE;
+
+    // Workouts dated within [from, to], inclusive.
+    public WorkoutQuery between(LocalDate from, LocalDate to) {
+        return between((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    public WorkoutQuery between(int fromEpochDay, int toEpochDay) {
+        this.fromEpochDay = fromEpochDay;
+        this.toEpochDay = toEpochDay;
+        return this;
+    }
+
+    // Workouts of one exercise, compared after normalization.
+    public WorkoutQuery exercise(String exercise) {
+        this.exercise = exercise == null ? null : ExerciseDictionary.normalize(exercise);
+        this.exerciseId = exercise == null ? ExerciseDictionary.UNKNOWN : ExerciseDictionary.idOf(exercise);
+        return this;
+    }
+
+    public WorkoutQuery completed(boolean completed) {
+        this.completed = completed;
+        return this;
+    }
+
+    public WorkoutQuery minWeight(double minWeight) {
+        this.minWeight = minWeight;
+        return this;
+    }
+
+    public WorkoutQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public int getFromEpochDay() {
+        return fromEpochDay;
+    }
+
+    public int getToEpochDay() {
+        return toEpochDay;
+    }
+
+    public String getExercise() {
+        return exercise;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // Copy of this query with a different limit, for running it piecewise over several files.
+    WorkoutQuery withLimit(int limit) {
+        WorkoutQuery copy = new WorkoutQuery().between(fromEpochDay, toEpochDay).minWeight(minWeight).limit(limit);
+        copy.exercise = exercise;
+        copy.exerciseId = exerciseId;
+        copy.completed = completed;
+        return copy;
+    }
+
+    public boolean matches(Workout workout) {
+        return workout != null
+                && matchesDay(workout.getEpochDay())
+                && (exercise == null || workout.getExerciseId() == exerciseId)
+                && (completed == null || workout.isCompleted() == completed)
+                && workout.getWeight() >= minWeight;
+    }
+
+    boolean matchesDay(int epochDay) {
+        return epochDay >= fromEpochDay && epochDay <= toEpochDay;
+    }
+
+    // Exercise check on the raw row; false rows are dropped before the rest is parsed.
+    boolean matchesExercise(CsvTokenizer tokens) {
+        return exercise == null || ExerciseDictionary.lookup(tokens.pooled(1)) == exerciseId;
+    }
+
+    // Remaining criteria, applied to a row that has passed validation.
+    boolean matchesRest(CsvTokenizer tokens) {
+        return (completed == null || tokens.fieldEqualsIgnoreCase(6, "true") == completed)
+                && tokens.doubleField(2) >= minWeight;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkoutQuery[days=" + fromEpochDay + ".." + toEpochDay + ", exercise=" + exercise
+                + ", completed=" + completed + ", minWeight=" + minWeight + ", limit=" + limit + "]";
+    }
+}
@@ -0,0 +1,285 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Weekly and monthly summaries of a workout file: workouts, training days (sessions),
+ * completed workouts and volume per ISO week and per month, plus volume per exercise per
+ * month. FileStorage folds rows into the rollups while it writes them and stores the
+ * result beside the data file ({@value #FILE_SUFFIX}), so history dashboards read a few
+ * hundred lines instead of every row.
+ *
+ * Training days are kept as a bitmask of the days of the period that saw a workout, so
+ * rollups of separate files (such as monthly partitions) merge exactly.
+ */
+public final class WorkoutRollups {
+
+    static final String FILE_SUFFIX = ".rollups";
+    private static final String HEADER = "rollups v1";
+
+    private final TreeMap<Integer, Bucket> weeks = new TreeMap<>();
+    private final TreeMap<YearMonth, Bucket> months = new TreeMap<>();
+    private final TreeMap<YearMonth, Map<String, Tonnage>> exercises = new TreeMap<>();
+
+    /** Totals for one week or month. */
+    public static final class PeriodSummary {
+        private final LocalDate start;
+        private final int workouts;
+        private final int sessions;
+        private final int completed;
+        private final double volume;
+
+        private PeriodSummary(LocalDate start, Bucket bucket) {
+            this.start = start;
+            this.workouts = bucket.workouts;
+            this.sessions = Long.bitCount(bucket.dayMask);
+            this.completed = bucket.completed;
+            this.volume = bucket.volume;
+        }
+
+        // Monday of the week, or the first of the month.
+        public LocalDate getStart() {
+            return start;
+        }
+
+        public int getWorkouts() {
+            return workouts;
+        }
+
+        // Distinct days with at least one workout.
+        public int getSessions() {
+            return sessions;
+        }
+
+        public int getCompleted() {
+            return completed;
+        }
+
+        public double getCompletionRate() {
+            return workouts == 0 ? 0.0 : (double) completed / workouts;
+        }
+
+        public double getVolume() {
+            return volume;
+        }
+
+        @Override
+        public String toString() {
+            return start + ": " + sessions + " sessions, " + workouts + " workouts (" + completed
+                    + " completed), volume " + volume;
+        }
+    }
+
+    // Weeks overlapping [from, to], including the one from falls in, oldest first.
+    public List<PeriodSummary> getWeeks(LocalDate from, LocalDate to) {
+        List<PeriodSummary> summaries = new ArrayList<>();
+        int first = weekStart((int) from.toEpochDay());
+        if (first > to.toEpochDay()) {
+            return summaries;
+        }
+        for (Map.Entry<Integer, Bucket> entry : weeks.subMap(first, true, (int) to.toEpochDay(), true).entrySet()) {
+            summaries.add(new PeriodSummary(LocalDate.ofEpochDay(entry.getKey()), entry.getValue()));
+        }
+        return summaries;
+    }
+
+    public List<PeriodSummary> getWeeks() {
+        List<PeriodSummary> summaries = new ArrayList<>(weeks.size());
+        for (Map.Entry<Integer, Bucket> entry : weeks.entrySet()) {
+            summaries.add(new PeriodSummary(LocalDate.ofEpochDay(entry.getKey()), entry.getValue()));
+        }
+        return summaries;
+    }
+
+    public List<PeriodSummary> getMonths() {
+        List<PeriodSummary> summaries = new ArrayList<>(months.size());
+        for (Map.Entry<YearMonth, Bucket> entry : months.entrySet()) {
+            summaries.add(new PeriodSummary(entry.getKey().atDay(1), entry.getValue()));
+        }
+        return summaries;
+    }
+
+    // Volume per exercise in the month, by exercise name.
+    public Map<String, Double> getTonnageByExercise(YearMonth month) {
+        Map<String, Tonnage> byExercise = exercises.get(month);
+        if (byExercise == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Double> tonnage = new TreeMap<>();
+        for (Map.Entry<String, Tonnage> entry : byExercise.entrySet()) {
+            tonnage.put(entry.getKey(), entry.getValue().volume);
+        }
+        return tonnage;
+    }
+
+    public boolean isEmpty() {
+        return months.isEmpty();
+    }
+
+    // Fold one stored row into every period it belongs to.
+    void add(int epochDay, String exercise, double weight, int reps, int sets, boolean completed) {
+        double volume = weight * reps * sets;
+        int week = weekStart(epochDay);
+        weeks.computeIfAbsent(week, w -> new Bucket()).add(1L << (epochDay - week), completed, volume);
+
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        YearMonth month = YearMonth.from(date);
+        months.computeIfAbsent(month, m -> new Bucket()).add(1L << (date.getDayOfMonth() - 1), completed, volume);
+        Tonnage tonnage = exercises.computeIfAbsent(month, m -> new HashMap<>())
+                .computeIfAbsent(exercise, e -> new Tonnage());
+        tonnage.workouts++;
+        tonnage.volume += volume;
+    }
+
+    void add(Workout workout) {
+        add(workout.getEpochDay(), workout.getExercise(), workout.getWeight(), workout.getReps(), workout.getSets(),
+                workout.isCompleted());
+    }
+
+    // Add another file's rollups to these; weeks shared across the two are combined.
+    void merge(WorkoutRollups other) {
+        other.weeks.forEach((week, bucket) -> weeks.computeIfAbsent(week, w -> new Bucket()).merge(bucket));
+        other.months.forEach((month, bucket) -> months.computeIfAbsent(month, m -> new Bucket()).merge(bucket));
+        other.exercises.forEach((month, byExercise) -> {
+            Map<String, Tonnage> target = exercises.computeIfAbsent(month, m -> new HashMap<>());
+            byExercise.forEach((exercise, tonnage) -> {
+                Tonnage sum = target.computeIfAbsent(exercise, e -> new Tonnage());
+                sum.workouts += tonnage.workouts;
+                sum.volume += tonnage.volume;
+            });
+        });
+    }
+
+    /**
+     * Write the rollups atomically to path, stamped with the size and modification time of
+     * the data file they summarize so a later read can tell whether they still apply.
+     */
+    void write(Path path, long dataSize, long dataModifiedMillis) throws IOException {
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                CsvEncoder row = new CsvEncoder();
+                writeRow(out, row.reset().field(HEADER).field(Long.toString(dataSize))
+                        .field(Long.toString(dataModifiedMillis)));
+                for (Map.Entry<Integer, Bucket> entry : weeks.entrySet()) {
+                    writeRow(out, entry.getValue().encode(row.reset().field("W").field(entry.getKey())));
+                }
+                for (Map.Entry<YearMonth, Bucket> entry : months.entrySet()) {
+                    writeRow(out, entry.getValue().encode(row.reset().field("M").field(entry.getKey().toString())));
+                }
+                for (Map.Entry<YearMonth, Map<String, Tonnage>> month : exercises.entrySet()) {
+                    for (Map.Entry<String, Tonnage> entry : month.getValue().entrySet()) {
+                        writeRow(out, row.reset().field("E").field(month.getKey().toString()).field(entry.getKey())
+                                .field(entry.getValue().workouts).field(entry.getValue().volume));
+                    }
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Read rollups written for a data file of the given size and modification time. Returns
+     * null when the file is missing, unreadable or was written for different data.
+     */
+    static WorkoutRollups read(Path path, long dataSize, long dataModifiedMillis) {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        WorkoutRollups rollups = new WorkoutRollups();
+        try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            CsvTokenizer tokens = new CsvTokenizer();
+            if (!tokens.readLine(in) || tokens.fieldCount() != 3 || !tokens.field(0).equals(HEADER)
+                    || Long.parseLong(tokens.field(1)) != dataSize
+                    || Long.parseLong(tokens.field(2)) != dataModifiedMillis) {
+                return null;
+            }
+            while (tokens.readLine(in)) {
+                String kind = tokens.field(0);
+                if (kind.equals("W")) {
+                    rollups.weeks.put(tokens.intField(1), Bucket.decode(tokens));
+                } else if (kind.equals("M")) {
+                    rollups.months.put(YearMonth.parse(tokens.field(1)), Bucket.decode(tokens));
+                } else if (kind.equals("E")) {
+                    Tonnage tonnage = new Tonnage();
+                    tonnage.workouts = tokens.intField(3);
+                    tonnage.volume = tokens.doubleField(4);
+                    rollups.exercises.computeIfAbsent(YearMonth.parse(tokens.field(1)), m -> new HashMap<>())
+                            .put(ExerciseDictionary.intern(tokens.field(2)), tonnage);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+        return rollups;
+    }
+
+    static Path pathFor(String dataFilePath) {
+        return Path.of(dataFilePath + FILE_SUFFIX);
+    }
+
+    private static void writeRow(Writer out, CsvEncoder row) throws IOException {
+        row.writeTo(out);
+        out.write('\n');
+    }
+
+    private static int weekStart(int epochDay) {
+        return epochDay - (LocalDate.ofEpochDay(epochDay).getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue());
+    }
+
+    private static final class Bucket {
+        private int workouts;
+        private int completed;
+        private double volume;
+        private long dayMask;
+
+        private void add(long day, boolean done, double rowVolume) {
+            workouts++;
+            completed += done ? 1 : 0;
+            volume += rowVolume;
+            dayMask |= day;
+        }
+
+        private void merge(Bucket other) {
+            workouts += other.workouts;
+            completed += other.completed;
+            volume += other.volume;
+            dayMask |= other.dayMask;
+        }
+
+        private CsvEncoder encode(CsvEncoder row) {
+            return row.field(workouts).field(completed).field(volume).field(Long.toString(dayMask));
+        }
+
+        private static Bucket decode(CsvTokenizer tokens) {
+            Bucket bucket = new Bucket();
+            bucket.workouts = tokens.intField(2);
+            bucket.completed = tokens.intField(3);
+            bucket.volume = tokens.doubleField(4);
+            bucket.dayMask = Long.parseLong(tokens.field(5));
+            return bucket;
+        }
+    }
+
+    private static final class Tonnage {
+        private int workouts;
+        private double volume;
+    }
+}
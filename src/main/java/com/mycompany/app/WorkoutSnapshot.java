@@ -0,0 +1,35 @@
+package com.mycompany.app;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list over the first {@code size} slots of a workout array. The logs that hand
+ * these out never write to slots below a published size again, so a snapshot costs no
+ * copying and stays fixed while the log keeps changing.
+ * Only the slots are fixed: the Workout objects are the log's own, so edits made to them
+ * in place, such as markCompleted, show through.
+ */
+final class WorkoutSnapshot extends AbstractList<Workout> implements RandomAccess {
+
+    private final Workout[] items;
+    private final int size;
+
+    WorkoutSnapshot(Workout[] items, int size) {
+        this.items = items;
+        this.size = size;
+    }
+
+    @Override
+    public Workout get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return items[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}